@@ -0,0 +1,114 @@
+package me.hjhng125.querydsl.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * 측정 결과
+ * <p/>
+ * result.json : endpoint 별 요청 수, 에러 수, 처리량과 응답 시간 백분위(ms). 실행 간 비교에 사용한다.<br/>
+ * latency.hlog : endpoint 를 태그로 가지는 HdrHistogram 로그. HistogramLogProcessor 등으로 전체 분포를 다시 볼 수 있다.
+ */
+class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestOptions options;
+    private final Map<String, Histogram> histograms;
+    private final Map<String, Long> errors;
+    private final long elapsedMillis;
+
+    LatencyReport(LoadTestOptions options, Map<String, Histogram> histograms, Map<String, Long> errors, long elapsedMillis) {
+        this.options = options;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve("result.json"), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("latency.hlog")), false, StandardCharsets.UTF_8.name())) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(out);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputComment("unit: microseconds");
+            logWriter.outputLegend();
+            for (Histogram histogram : histograms.values()) {
+                logWriter.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "concurrency=%d, duration=%.1fs%n", options.getConcurrency(), elapsedMillis / 1000.0);
+        out.printf(Locale.ROOT, "%-24s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf(Locale.ROOT, "%-24s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                entry.getKey(),
+                histogram.getTotalCount(),
+                errors.get(entry.getKey()),
+                throughput(histogram),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+    }
+
+    private String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"baseUrl\": \"").append(options.getBaseUri()).append("\",\n");
+        json.append("  \"concurrency\": ").append(options.getConcurrency()).append(",\n");
+        json.append("  \"durationMillis\": ").append(elapsedMillis).append(",\n");
+        json.append("  \"endpoints\": {\n");
+
+        Iterator<Map.Entry<String, Histogram>> iterator = histograms.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Histogram> entry = iterator.next();
+            Histogram histogram = entry.getValue();
+
+            json.append("    \"").append(entry.getKey()).append("\": {");
+            json.append("\"requests\": ").append(histogram.getTotalCount());
+            json.append(", \"errors\": ").append(errors.get(entry.getKey()));
+            json.append(String.format(Locale.ROOT, ", \"throughput\": %.2f", throughput(histogram)));
+            json.append(String.format(Locale.ROOT, ", \"p50\": %.3f", millis(histogram.getValueAtPercentile(50))));
+            json.append(String.format(Locale.ROOT, ", \"p95\": %.3f", millis(histogram.getValueAtPercentile(95))));
+            json.append(String.format(Locale.ROOT, ", \"p99\": %.3f", millis(histogram.getValueAtPercentile(99))));
+            json.append(String.format(Locale.ROOT, ", \"p999\": %.3f", millis(histogram.getValueAtPercentile(99.9))));
+            json.append(String.format(Locale.ROOT, ", \"max\": %.3f", millis(histogram.getMaxValue())));
+            json.append(String.format(Locale.ROOT, ", \"mean\": %.3f", histogram.getMean() / MICROS_PER_MILLI));
+            json.append("}");
+            json.append(iterator.hasNext() ? ",\n" : "\n");
+        }
+
+        json.append("  }\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    private double throughput(Histogram histogram) {
+        return elapsedMillis == 0 ? 0 : histogram.getTotalCount() * 1000.0 / elapsedMillis;
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,124 @@
+package me.hjhng125.querydsl.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 검색 API 에 대한 closed loop 부하 테스트
+ * <p/>
+ * concurrency 개의 스레드가 각자 요청을 보내고 응답을 받은 뒤 다음 요청을 보낸다.<br/>
+ * 워밍업 동안의 결과는 버리고 측정 구간의 응답 시간만 endpoint 별 HdrHistogram 에 기록한다.<br/>
+ * 상태 코드가 400 이상이거나 요청이 실패한 경우는 에러로 집계하며 응답 시간도 함께 기록한다.
+ * <p/>
+ * ./gradlew :loadtest:run --args="--concurrency=32 --duration=60"
+ */
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestOptions options;
+    private final RequestMix requestMix;
+    private final HttpClient httpClient;
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    private volatile boolean running = true;
+
+    LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.requestMix = new RequestMix(options);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        for (String endpoint : requestMix.getEndpoints()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        LatencyReport report = new LoadTest(options).run();
+        report.write(options.getOutput());
+        report.print(System.out);
+    }
+
+    LatencyReport run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        for (int i = 0; i < options.getConcurrency(); ++i) {
+            workers.execute(this::loop);
+        }
+
+        TimeUnit.MILLISECONDS.sleep(options.getWarmup().toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+
+        long startedAt = System.currentTimeMillis();
+        TimeUnit.MILLISECONDS.sleep(options.getDuration().toMillis());
+        running = false;
+        long endedAt = System.currentTimeMillis();
+
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        for (String endpoint : requestMix.getEndpoints()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            histogram.setStartTimeStamp(startedAt);
+            histogram.setEndTimeStamp(endedAt);
+            histogram.setTag(endpoint);
+
+            histograms.put(endpoint, histogram);
+            errorCounts.put(endpoint, errors.get(endpoint).sum());
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        return new LatencyReport(options, histograms, errorCounts, endedAt - startedAt);
+    }
+
+    private void loop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running) {
+            RequestMix.Request request = requestMix.next(random);
+            HttpRequest httpRequest = HttpRequest.newBuilder(request.getUri())
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            recorders.get(request.getEndpoint()).recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+            if (failed) {
+                errors.get(request.getEndpoint()).increment();
+            }
+        }
+    }
+}
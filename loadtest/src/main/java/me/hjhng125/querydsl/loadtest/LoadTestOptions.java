@@ -0,0 +1,108 @@
+package me.hjhng125.querydsl.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * --key=value 형태의 실행 인자
+ * <p/>
+ * --base-url : 부하를 줄 애플리케이션 주소 <br/>
+ * --concurrency : 요청을 보내는 스레드 수. 각 스레드는 응답을 받은 뒤 다음 요청을 보낸다. (closed loop) <br/>
+ * --duration, --warmup : 측정 시간, 측정 전 워밍업 시간 (초) <br/>
+ * --endpoints : endpoint:가중치 목록 (','로 구분). {id}는 1 ~ id-range 사이의 임의의 값으로 바뀐다. <br/>
+ * --conditions : 검색 조건 쿼리 스트링 목록 (';'로 구분). 빈 조건도 허용한다. <br/>
+ * --page-size, --max-page : 페이지 요청 시 size, 0 ~ max-page 사이의 임의의 page <br/>
+ * --output : 결과(result.json, latency.hlog)를 저장할 디렉토리
+ */
+class LoadTestOptions {
+
+    private static final String DEFAULT_ENDPOINTS = "/v1/members:1,/v2/members:1,/v3/members:1,/v4/members:1,"
+        + "/v4/members/slice:1,/v7/members/{id}:1";
+    private static final String DEFAULT_CONDITIONS = ";teamName=team1;ageGoe=10&ageLoe=30;ageGoe=50;username=member100";
+
+    private final URI baseUri;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final List<String> endpoints;
+    private final List<String> conditions;
+    private final int pageSize;
+    private final int maxPage;
+    private final long idRange;
+    private final Path output;
+
+    private LoadTestOptions(Map<String, String> args) {
+        this.baseUri = URI.create(args.getOrDefault("base-url", "http://localhost:8080"));
+        this.concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        this.duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "5")));
+        this.endpoints = Arrays.asList(args.getOrDefault("endpoints", DEFAULT_ENDPOINTS).split(","));
+        this.conditions = Arrays.asList(args.getOrDefault("conditions", DEFAULT_CONDITIONS).split(";", -1));
+        this.pageSize = Integer.parseInt(args.getOrDefault("page-size", "20"));
+        this.maxPage = Integer.parseInt(args.getOrDefault("max-page", "10"));
+        this.idRange = Long.parseLong(args.getOrDefault("id-range", "100000"));
+        this.output = Paths.get(args.getOrDefault("output", "build/loadtest"));
+
+        if (concurrency <= 0 || pageSize <= 0 || maxPage < 0 || idRange <= 0) {
+            throw new IllegalArgumentException("concurrency, page-size, id-range must be positive and max-page must not be negative");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(options);
+    }
+
+    URI getBaseUri() {
+        return baseUri;
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    List<String> getEndpoints() {
+        return endpoints;
+    }
+
+    List<String> getConditions() {
+        return conditions;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    int getMaxPage() {
+        return maxPage;
+    }
+
+    long getIdRange() {
+        return idRange;
+    }
+
+    Path getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,92 @@
+package me.hjhng125.querydsl.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * endpoint 가중치와 검색 조건 목록으로 다음에 보낼 요청을 고른다.
+ */
+class RequestMix {
+
+    private static final String ID_PLACEHOLDER = "{id}";
+
+    private final URI baseUri;
+    private final List<String> endpoints = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final List<String> conditions;
+    private final int pageSize;
+    private final int maxPage;
+    private final long idRange;
+
+    RequestMix(LoadTestOptions options) {
+        this.baseUri = options.getBaseUri();
+        this.conditions = options.getConditions();
+        this.pageSize = options.getPageSize();
+        this.maxPage = options.getMaxPage();
+        this.idRange = options.getIdRange();
+
+        this.cumulativeWeights = new int[options.getEndpoints().size()];
+        int totalWeight = 0;
+        for (String endpoint : options.getEndpoints()) {
+            int separator = endpoint.lastIndexOf(':');
+            int weight = separator < 0 ? 1 : Integer.parseInt(endpoint.substring(separator + 1));
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Endpoint weight must be positive: " + endpoint);
+            }
+
+            totalWeight += weight;
+            cumulativeWeights[endpoints.size()] = totalWeight;
+            endpoints.add(separator < 0 ? endpoint : endpoint.substring(0, separator));
+        }
+    }
+
+    List<String> getEndpoints() {
+        return endpoints;
+    }
+
+    Request next(ThreadLocalRandom random) {
+        String endpoint = pickEndpoint(random);
+
+        if (endpoint.contains(ID_PLACEHOLDER)) {
+            String path = endpoint.replace(ID_PLACEHOLDER, String.valueOf(1 + random.nextLong(idRange)));
+            return new Request(endpoint, baseUri.resolve(path));
+        }
+
+        String condition = conditions.get(random.nextInt(conditions.size()));
+        String query = "page=" + random.nextInt(maxPage + 1) + "&size=" + pageSize
+            + (condition.isEmpty() ? "" : "&" + condition);
+
+        return new Request(endpoint, baseUri.resolve(endpoint + "?" + query));
+    }
+
+    private String pickEndpoint(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; ++i) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    static class Request {
+
+        private final String endpoint;
+        private final URI uri;
+
+        private Request(String endpoint, URI uri) {
+            this.endpoint = endpoint;
+            this.uri = uri;
+        }
+
+        String getEndpoint() {
+            return endpoint;
+        }
+
+        URI getUri() {
+            return uri;
+        }
+    }
+}
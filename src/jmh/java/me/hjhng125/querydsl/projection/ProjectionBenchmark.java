@@ -0,0 +1,165 @@
+package me.hjhng125.querydsl.projection;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import java.util.concurrent.TimeUnit;
+import me.hjhng125.querydsl.model.dto.MemberDto;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.QMemberDto;
+import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 1M 개의 row 를 DTO 로 바꾸는 비용을 projection 방식 별로 측정한다. (ns/op = row 당 비용)
+ * <p/>
+ * 쿼리 실행, jdbc 결과 읽기 비용을 빼고 projection(FactoryExpression.newInstance) 비용만 비교하기 위해
+ * 미리 만든 row(Object[])를 변환한다.
+ * <p/>
+ * ./gradlew jmh -PjmhIncludes=ProjectionBenchmark (결과: build/results/jmh)
+ * <p/>
+ * 측정 결과 (ns/row, JDK 11.0.21, Xeon 1 core, JMH 1.32, 위 설정 그대로)<br/>
+ * handWritten                   11.0 ± 1.1<br/>
+ * directConstructor             11.5 ± 1.7<br/>
+ * directConstructorFinal        11.5 ± 0.5<br/>
+ * directBean                    14.7 ± 6.6<br/>
+ * queryProjection               15.4 ± 2.8<br/>
+ * projectionsConstructor        16.7 ± 1.7<br/>
+ * projectionsBean               26.7 ± 4.3<br/>
+ * projectionsFields             30.2 ± 7.0<br/>
+ * memberTeamDirectConstructor   20.4 ± 3.7<br/>
+ * memberTeamQueryProjection     25.0 ± 4.8<br/>
+ * Projections.fields()는 final 필드(UserDto)를 채우지 못하고 ExpressionException 을 던지므로 측정 대상에서 뺐다.
+ * final 필드 DTO 는 directConstructorFinal 로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private Object[][] memberRows;
+    private Object[][] memberTeamRows;
+
+    private FactoryExpression<MemberDto> bean;
+    private FactoryExpression<MemberDto> fields;
+    private FactoryExpression<MemberDto> constructor;
+    private FactoryExpression<MemberDto> queryProjection;
+    private FactoryExpression<MemberTeamDTO> memberTeamQueryProjection;
+
+    private FactoryExpression<MemberDto> directBean;
+    private FactoryExpression<MemberDto> directConstructor;
+    private FactoryExpression<UserDto> directConstructorFinal;
+    private FactoryExpression<MemberTeamDTO> memberTeamDirectConstructor;
+
+    @Setup
+    public void setup() {
+        memberRows = new Object[ROWS][];
+        memberTeamRows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; ++i) {
+            memberRows[i] = new Object[]{"member" + i, i % 100};
+            memberTeamRows[i] = new Object[]{(long) i, "member" + i, i % 100, (long) (i % 100), "team" + (i % 100)};
+        }
+
+        bean = Projections.bean(MemberDto.class, member.username, member.age);
+        fields = Projections.fields(MemberDto.class, member.username, member.age);
+        constructor = Projections.constructor(MemberDto.class, member.username, member.age);
+        queryProjection = new QMemberDto(member.username, member.age);
+        memberTeamQueryProjection = new QMemberTeamDTO(member.id, member.username, member.age, team.id, team.name);
+
+        directBean = DirectProjections.bean(MemberDto.class, member.username, member.age);
+        directConstructor = DirectProjections.constructor(MemberDto.class, member.username, member.age);
+        directConstructorFinal = DirectProjections.constructor(UserDto.class, member.username, member.age);
+        memberTeamDirectConstructor = DirectProjections.constructor(MemberTeamDTO.class,
+            member.id, member.username, member.age, team.id, team.name);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void projectionsBean(Blackhole blackhole) {
+        transform(bean, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void projectionsFields(Blackhole blackhole) {
+        transform(fields, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void projectionsConstructor(Blackhole blackhole) {
+        transform(constructor, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void queryProjection(Blackhole blackhole) {
+        transform(queryProjection, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void directBean(Blackhole blackhole) {
+        transform(directBean, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void directConstructor(Blackhole blackhole) {
+        transform(directConstructor, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void directConstructorFinal(Blackhole blackhole) {
+        transform(directConstructorFinal, memberRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void memberTeamQueryProjection(Blackhole blackhole) {
+        transform(memberTeamQueryProjection, memberTeamRows, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void memberTeamDirectConstructor(Blackhole blackhole) {
+        transform(memberTeamDirectConstructor, memberTeamRows, blackhole);
+    }
+
+    /**
+     * 직접 생성하는 비용. (하한)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void handWritten(Blackhole blackhole) {
+        for (Object[] row : memberRows) {
+            blackhole.consume(new MemberDto((String) row[0], (Integer) row[1]));
+        }
+    }
+
+    private static void transform(FactoryExpression<?> projection, Object[][] rows, Blackhole blackhole) {
+        for (Object[] row : rows) {
+            blackhole.consume(projection.newInstance(row));
+        }
+    }
+}
@@ -6,7 +6,11 @@ import javax.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import me.hjhng125.querydsl.model.entity.Member;
 import me.hjhng125.querydsl.model.entity.Team;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +20,26 @@ import org.springframework.transaction.annotation.Transactional;
 public class InitMember {
 
     private final InitMemberService initMemberService;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${init-data.async:false}")
+    private boolean async;
 
     @PostConstruct
     public void init() {
-        initMemberService.init();;
+        if (!async) {
+            initMemberService.init();
+        }
+    }
+
+    /**
+     * init-data.async 가 true 이면 애플리케이션이 준비된 이후 백그라운드에서 데이터를 넣어 시작 시간에 포함되지 않게 한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initAsync() {
+        if (async) {
+            taskExecutor.execute(initMemberService::init);
+        }
     }
 
     /**
@@ -28,6 +48,8 @@ public class InitMember {
      * 해당 객체 내부에 의한 호출에는 @Transactional 어노테이션이 선언되었다해도 런타임 시에 실제 트랜잭션이 동작하지 않을 수 있다고 한다.
      * 또한 프록시가 예상되는 동작을 하기 위해선 완전히 초기화가 되어야 하기에
      * @PostConstruct가 선언된 메서드와 같은 초기화 메서드에서 프록시 기능을 의존해선 안된다.
+     * <p/>
+     * ddl-auto: validate 로 실행하면 이전 실행의 데이터가 남아있으므로 데이터가 있으면 넣지 않는다.
      */
     @Component
     static class InitMemberService {
@@ -37,6 +59,14 @@ public class InitMember {
 
         @Transactional
         public void init() {
+            boolean initialized = !em.createQuery("select m.id from Member m", Long.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+            if (initialized) {
+                return;
+            }
+
             Team teamA = new Team("teamA");
             Team teamB = new Team("teamB");
             em.persist(teamA);
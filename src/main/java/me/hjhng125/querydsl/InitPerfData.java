@@ -0,0 +1,73 @@
+package me.hjhng125.querydsl;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * perf 프로파일에서 성능 측정용 데이터를 생성한다.<br/>
+ * 팀은 perf.data.teams 개, 멤버는 perf.data.members 명을 만들고 각 멤버의 나이는 0 ~ 99 이다.
+ */
+@Profile("perf")
+@Component
+@RequiredArgsConstructor
+public class InitPerfData {
+
+    private final InitPerfDataService initPerfDataService;
+
+    @PostConstruct
+    public void init() {
+        initPerfDataService.init();
+    }
+
+    @Component
+    static class InitPerfDataService {
+
+        @PersistenceContext
+        private EntityManager em;
+
+        @Value("${perf.data.teams:100}")
+        private int teamCount;
+
+        @Value("${perf.data.members:100000}")
+        private int memberCount;
+
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+        private int batchSize;
+
+        /**
+         * batch_size 마다 flush, clear 하여 jdbc batch insert로 저장하고 영속성 컨텍스트가 커지지 않게 한다.<br/>
+         * Member(username, age, team) 생성자는 team.members 에 멤버를 추가하기 때문에 setTeam()으로 관계의 주인에만 값을 넣는다.
+         */
+        @Transactional
+        public void init() {
+            List<Team> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; ++i) {
+                Team team = new Team("team" + i);
+                em.persist(team);
+                teams.add(team);
+            }
+            em.flush();
+
+            for (int i = 0; i < memberCount; ++i) {
+                Member member = new Member("member" + i, i % 100);
+                member.setTeam(teams.get(i % teamCount));
+                em.persist(member);
+
+                if ((i + 1) % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        }
+    }
+}
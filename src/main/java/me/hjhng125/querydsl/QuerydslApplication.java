@@ -2,12 +2,20 @@ package me.hjhng125.querydsl;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class QuerydslApplication {
 
+    /**
+     * 시작 단계 별 소요 시간을 기록한다. (StartupTimingReporter, /actuator/startup)
+     */
+    private static final int STARTUP_STEP_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(QuerydslApplication.class, args);
+        SpringApplication application = new SpringApplication(QuerydslApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,55 @@
+package me.hjhng125.querydsl;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * AppCDS 학습 실행(./gradlew cdsArchive)에서 사용한다.
+ * <p/>
+ * 애플리케이션이 준비되면 주요 API를 한 번씩 호출하여 요청 처리에 필요한 클래스
+ * (컨트롤러, 리포지토리, QMember, QTeam, QMemberTeamDTO 등 Q-클래스, jackson 직렬화)를 로드한 뒤 종료한다.<br/>
+ * 이 때 로드된 클래스 목록으로 CDS 아카이브를 만들기 때문에 시작 직후의 첫 요청도 아카이브의 이점을 얻는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "startup.training-run", havingValue = "true")
+public class StartupTrainingRun {
+
+    private static final List<String> REQUESTS = Arrays.asList(
+        "/v1/members?teamName=team1&ageGoe=10",
+        "/v2/members?page=1&size=20",
+        "/v3/members?page=1&size=20&ageGoe=10",
+        "/v4/members?page=1&size=20&teamName=team1",
+        "/v4/members/approximate?page=1&size=20",
+        "/v4/members/slice?page=1&size=20",
+        "/v5/members?username=member1",
+        "/v6/members?username=member1",
+        "/v7/members?ids=1,2,3",
+        "/v7/members/1"
+    );
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run(ApplicationReadyEvent event) {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        RestTemplate restTemplate = new RestTemplate();
+
+        for (String request : REQUESTS) {
+            try {
+                restTemplate.getForObject("http://localhost:" + port + request, String.class);
+            } catch (RestClientException e) {
+                log.warn("Training request failed: {} ({})", request, e.getMessage());
+            }
+        }
+
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
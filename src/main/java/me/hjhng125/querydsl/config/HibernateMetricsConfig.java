@@ -0,0 +1,36 @@
+package me.hjhng125.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * hibernate.* 메트릭(세션, 쿼리 플랜 캐시, 2차 캐시, 엔터티 로드 등)은 spring boot가 자동으로 등록해준다.<br/>
+ * 쿼리 문자열 별 실행 횟수, 실행 시간(hibernate.query)은 자동으로 등록되지 않기 때문에 직접 등록한다.
+ * <p/>
+ * MeterBinder 빈으로 등록하면 EntityManagerFactory가 너무 일찍 초기화되어 순환 참조가 생길 수 있기에
+ * 모든 싱글톤 빈이 만들어진 이후에 등록한다.
+ */
+@Configuration
+public class HibernateMetricsConfig implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public HibernateMetricsConfig(EntityManagerFactory entityManagerFactory, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        meterRegistry.ifAvailable(registry -> new HibernateQueryMetrics(
+            entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty())
+            .bindTo(registry));
+    }
+}
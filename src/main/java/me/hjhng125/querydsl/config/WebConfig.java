@@ -0,0 +1,29 @@
+package me.hjhng125.querydsl.config;
+
+import lombok.RequiredArgsConstructor;
+import me.hjhng125.querydsl.controller.MemberSearchETagInterceptor;
+import me.hjhng125.querydsl.event.EntityVersions;
+import me.hjhng125.querydsl.monitoring.ConnectionPoolGuard;
+import me.hjhng125.querydsl.monitoring.ConnectionPoolSheddingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConnectionPoolGuard connectionPoolGuard;
+    private final EntityVersions entityVersions;
+
+    /**
+     * 304 응답은 커넥션을 사용하지 않으므로 커넥션 풀이 포화 상태여도 응답할 수 있도록 먼저 등록한다.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MemberSearchETagInterceptor(entityVersions, connectionPoolGuard))
+            .addPathPatterns("/v2/members", "/v3/members");
+        registry.addInterceptor(new ConnectionPoolSheddingInterceptor(connectionPoolGuard))
+            .addPathPatterns("/v*/members", "/v*/members/**");
+    }
+}
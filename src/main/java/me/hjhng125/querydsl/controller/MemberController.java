@@ -2,25 +2,35 @@ package me.hjhng125.querydsl.controller;
 
 import static me.hjhng125.querydsl.model.entity.QMember.member;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
-import java.nio.file.attribute.UserPrincipalNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import me.hjhng125.querydsl.model.MemberSearchCondition;
 import me.hjhng125.querydsl.model.dto.MemberDto;
 import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
 import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.monitoring.ConnectionPoolGuard;
+import me.hjhng125.querydsl.repository.ApproximateCountPage;
 import me.hjhng125.querydsl.repository.MemberJpaRepository;
 import me.hjhng125.querydsl.repository.MemberRepository;
+import me.hjhng125.querydsl.repository.MemberTeamCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequiredArgsConstructor
@@ -28,27 +38,83 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final ConnectionPoolGuard connectionPoolGuard;
+    private final MemberTeamCache memberTeamCache;
+
+    @Value("${member.ids.max-size:1000}")
+    private int maxIds;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDTO> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.searchByWhereParam(condition);
     }
 
+    /**
+     * 여러 검색 조건을 한번에 요청한다. 응답은 요청한 조건과 같은 순서의 검색 결과 목록이다.
+     */
+    @PostMapping("/v1/members/batch")
+    public List<List<MemberTeamDTO>> searchMembersV1(@RequestBody List<MemberSearchCondition> conditions) {
+        conditions.forEach(this::rejectIncludeArchived);
+        return memberRepository.searchAll(conditions);
+    }
+
     @GetMapping("/v2/members")
-    public Page<MemberTeamDTO> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDTO> searchMemberV2(MemberSearchCondition condition, Pageable pageable, HttpServletRequest request) {
+        rejectIncludeArchived(condition);
+        if (MemberSearchETagInterceptor.isDegraded(request, connectionPoolGuard)) {
+            return searchMemberWithoutCount(condition, pageable);
+        }
         return memberRepository.searchPageSimple(condition, pageable);
     }
 
     @GetMapping("/v3/members")
-    public Page<MemberTeamDTO> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDTO> searchMemberV3(MemberSearchCondition condition, Pageable pageable, HttpServletRequest request) {
+        rejectIncludeArchived(condition);
+        if (MemberSearchETagInterceptor.isDegraded(request, connectionPoolGuard)) {
+            return searchMemberWithoutCount(condition, pageable);
+        }
         return memberRepository.searchPageComplex(condition, pageable);
     }
 
     @GetMapping("/v4/members")
-    public Page<MemberTeamDTO> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDTO> searchMemberV4(MemberSearchCondition condition, Pageable pageable, HttpServletRequest request) {
+        rejectIncludeArchived(condition);
+        if (MemberSearchETagInterceptor.isDegraded(request, connectionPoolGuard)) {
+            return searchMemberWithoutCount(condition, pageable);
+        }
         return memberRepository.searchPageNoCountQuery(condition, pageable);
     }
 
+    /**
+     * 커넥션 풀이 포화 상태일 때는 카운트 쿼리 없이 Slice로 조회하여 커넥션 점유 시간을 줄인다.
+     */
+    private Page<MemberTeamDTO> searchMemberWithoutCount(MemberSearchCondition condition, Pageable pageable) {
+        connectionPoolGuard.recordDegraded();
+        return ApproximateCountPage.fromSlice(memberRepository.searchSlice(condition, pageable));
+    }
+
+    @GetMapping("/v4/members/approximate")
+    public ApproximateCountPage<MemberTeamDTO> searchMemberApproximateV4(MemberSearchCondition condition, Pageable pageable) {
+        rejectIncludeArchived(condition);
+        return memberRepository.searchPageApproximateCount(condition, pageable);
+    }
+
+    @GetMapping("/v4/members/slice")
+    public Slice<MemberTeamDTO> searchMemberSliceV4(MemberSearchCondition condition, Pageable pageable) {
+        rejectIncludeArchived(condition);
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
+    /**
+     * 보관된 멤버(includeArchived)는 페이징 없는 단건 조건 검색(/v1/members)에서만 함께 조회한다.<br/>
+     * 페이징 검색과 여러 조건 검색(/v1/members/batch)은 member 테이블만 조회하므로 조용히 무시하지 않고 400 으로 응답한다.
+     */
+    private void rejectIncludeArchived(MemberSearchCondition condition) {
+        if (condition.isIncludeArchived()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "includeArchived is only supported by /v1/members");
+        }
+    }
+
     /**
      * spring data의 Sort를 querydsl에 적용하기 <br/>
      * OrderSpecifier 사용 <br/> spring data의 Sort는 하나의 엔터티에서 조회할 경우는 가능하나, join이 포함된 복잡한 쿼리에서 잘 동작하지 않는다.
@@ -65,19 +131,40 @@ public class MemberController {
                 .and(member.age.loe(condition.getAgeLoe())));
     }
 
+    /**
+     * 검색할 수 있는 조건은 MemberRepository 의 바인딩(id, team.id, username 접두어, age 범위)으로 제한된다.<br/>
+     * 조건이 하나도 없으면 전체 테이블을 조회하게 되므로 400 으로 응답한다.
+     */
     @GetMapping("/v6/members")
-    public List<Member> searchMemberV6(@QuerydslPredicate(root = Member.class) Predicate predicate) {
-        System.out.println("predicate = " + predicate);
+    public ResponseEntity<List<Member>> searchMemberV6(@QuerydslPredicate(root = Member.class) Predicate predicate) {
+        if (predicate == null || (predicate instanceof BooleanBuilder && !((BooleanBuilder) predicate).hasValue())) {
+            return ResponseEntity.badRequest().build();
+        }
+
         Iterable<Member> all = memberRepository.findAll(predicate);
         List<Member> listAll = new ArrayList<>();
         all.forEach(listAll::add);
-        return listAll;
+        return ResponseEntity.ok(listAll);
     }
 
+    /**
+     * /v7/members?ids=1,2,3 <br/>
+     * 요청한 id 순서대로 응답한다. 한 요청의 id 는 member.ids.max-size 개까지이며 넘으면 400 으로 응답한다.
+     */
+    @GetMapping("/v7/members")
+    public List<MemberTeamDTO> searchMembersV7(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > maxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many ids: " + ids.size() + " > " + maxIds);
+        }
+        return memberJpaRepository.findAllByIds(ids);
+    }
+
+    /**
+     * 도메인 클래스 컨버터(@PathVariable Member)로 바인딩한 뒤 다시 findById()를 하면 같은 멤버를 두 번 조회한다.<br/>
+     * id 로 바인딩하고 MemberTeamCache 에서 조회하여 요청당 쿼리는 많아야 한 번이다. 없는 멤버는 404 로 응답한다.
+     */
     @GetMapping("/v7/members/{member_id}")
-    public ResponseEntity<Member> searchMemberV7(@PathVariable("member_id") Member member) throws UserPrincipalNotFoundException{
-        return ResponseEntity.ok(memberRepository.findById(member.getId()).orElseThrow(
-            () -> new UserPrincipalNotFoundException("not found")
-        ));
+    public ResponseEntity<MemberTeamDTO> searchMemberV7(@PathVariable("member_id") Long memberId) {
+        return ResponseEntity.of(memberTeamCache.get(memberId));
     }
 }
@@ -0,0 +1,74 @@
+package me.hjhng125.querydsl.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import me.hjhng125.querydsl.event.EntityVersions;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import me.hjhng125.querydsl.monitoring.ConnectionPoolGuard;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 멤버 검색 응답에 ETag 를 붙이고, 클라이언트가 보낸 If-None-Match 와 같으면 컨트롤러를 호출하지 않고 304 로 응답한다.
+ * <p/>
+ * ETag 는 요청 경로, 검색 조건과 페이징 파라미터(정렬한 쿼리 파라미터), member, team 의 버전(EntityVersions)으로 만든다.<br/>
+ * 버전이 같으면 그 사이 커밋된 변경이 없으므로 같은 요청의 결과도 같다. 따라서 304 응답은 쿼리를 전혀 실행하지 않는다.<br/>
+ * 커넥션 풀이 degraded 상태일 때의 응답은 카운트가 추정치이므로 다른 ETag 를 사용한다.<br/>
+ * degraded 여부는 요청마다 한 번만 판단하여 요청 속성(DEGRADED_ATTRIBUTE)에 저장하고, 컨트롤러도 같은 값으로 응답을 만든다.
+ * 그 사이 풀 상태가 바뀌어도 추정치 응답에 정확한 응답의 ETag 가 붙지 않는다.
+ * <p/>
+ * 커밋 이후 버전이 오르기까지의 짧은 시간 동안은 이전 결과로 304 를 응답할 수 있다.
+ */
+@RequiredArgsConstructor
+public class MemberSearchETagInterceptor implements HandlerInterceptor {
+
+    static final String DEGRADED_ATTRIBUTE = MemberSearchETagInterceptor.class.getName() + ".degraded";
+
+    private final EntityVersions entityVersions;
+    private final ConnectionPoolGuard connectionPoolGuard;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        // 버전을 먼저 읽어야 조회 도중 커밋된 변경이 다음 요청에서 다른 ETag 가 된다.
+        String etag = etag(request, entityVersions.version(Member.class, Team.class), isDegraded(request, connectionPoolGuard));
+
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    /**
+     * 요청 속성에 저장한 degraded 여부를 반환한다. 아직 판단하지 않은 요청이면 지금 판단하여 저장한다.
+     */
+    static boolean isDegraded(HttpServletRequest request, ConnectionPoolGuard connectionPoolGuard) {
+        Object degraded = request.getAttribute(DEGRADED_ATTRIBUTE);
+        if (degraded == null) {
+            degraded = connectionPoolGuard.isDegraded();
+            request.setAttribute(DEGRADED_ATTRIBUTE, degraded);
+        }
+        return (Boolean) degraded;
+    }
+
+    private String etag(HttpServletRequest request, long version, boolean degraded) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        parameters.forEach((name, values) -> {
+            key.append('&').append(name);
+            for (String value : values) {
+                key.append('=').append(value);
+            }
+        });
+        key.append('&').append(degraded);
+
+        return "\"" + Long.toHexString(entityVersions.getEpoch()) + "-" + version + "-"
+            + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
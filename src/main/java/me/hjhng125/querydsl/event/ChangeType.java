@@ -0,0 +1,7 @@
+package me.hjhng125.querydsl.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
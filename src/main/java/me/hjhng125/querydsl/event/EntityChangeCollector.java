@@ -0,0 +1,73 @@
+package me.hjhng125.querydsl.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 안에서 발생한 변경 이벤트를 모아 두었다가 커밋된 이후에 한 번에 발행한다.<br/>
+ * 롤백된 트랜잭션의 이벤트는 버린다.
+ * <p/>
+ * 트랜잭션이 없으면(auto commit) 바로 발행한다.
+ * <p/>
+ * TransactionalEntityChangeListener 에는 기록하는 즉시 (트랜잭션 안에서) 전달한다.
+ */
+@Component
+public class EntityChangeCollector {
+
+    private final EntityChangePublisher publisher;
+    private final ObjectProvider<TransactionalEntityChangeListener> transactionalListeners;
+
+    public EntityChangeCollector(EntityChangePublisher publisher,
+        ObjectProvider<TransactionalEntityChangeListener> transactionalListeners) {
+        this.publisher = publisher;
+        this.transactionalListeners = transactionalListeners;
+    }
+
+    public void record(EntityChangeEvent event) {
+        record(Collections.singletonList(event));
+    }
+
+    public void record(Collection<EntityChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        transactionalListeners.orderedStream().forEach(listener -> listener.onRecorded(events));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.publish(events);
+            return;
+        }
+
+        EntityChanges changes = (EntityChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new EntityChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new PublishAfterCommit(changes));
+        }
+
+        events.forEach(changes::add);
+    }
+
+    private class PublishAfterCommit implements TransactionSynchronization {
+
+        private final EntityChanges changes;
+
+        private PublishAfterCommit(EntityChanges changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EntityChangeCollector.this);
+
+            if (status == STATUS_COMMITTED && !changes.isEmpty()) {
+                publisher.publish(changes.toList());
+            }
+        }
+    }
+}
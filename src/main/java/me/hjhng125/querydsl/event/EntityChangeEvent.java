@@ -0,0 +1,32 @@
+package me.hjhng125.querydsl.event;
+
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 엔터티(Member, Team 등)의 생성, 수정, 삭제 이벤트<br/>
+ * 캐시, 읽기 모델 등 파생 데이터는 EntityChangeListener 를 구현하여 커밋된 변경을 전달받는다.
+ * <p/>
+ * bulk 연산은 엔터티를 거치지 않기 때문에 TrackedBulkOperations 가 대상 id를 조회하여 이벤트를 만든다.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class EntityChangeEvent {
+
+    private final Class<?> entityType;
+    private final Serializable id;
+    private final ChangeType type;
+
+    public EntityChangeEvent(Class<?> entityType, Serializable id, ChangeType type) {
+        this.entityType = entityType;
+        this.id = id;
+        this.type = type;
+    }
+
+    public boolean isFor(Class<?> entityType) {
+        return this.entityType.equals(entityType);
+    }
+}
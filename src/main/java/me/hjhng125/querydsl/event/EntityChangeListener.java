@@ -0,0 +1,22 @@
+package me.hjhng125.querydsl.event;
+
+import java.util.List;
+
+/**
+ * 커밋된 변경 이벤트를 전달받는다.<br/>
+ * EntityChangePublisher 의 단일 디스패처 스레드에서 호출되므로 오래 걸리는 작업을 하면 안된다.
+ */
+public interface EntityChangeListener {
+
+    /**
+     * @param events 같은 엔터티에 대한 이벤트는 하나로 합쳐서 전달된다.
+     */
+    void onChanges(List<EntityChangeEvent> events);
+
+    /**
+     * 버퍼가 가득 차 이벤트가 유실되었을 때 호출된다.<br/>
+     * 어떤 엔터티가 바뀌었는지 알 수 없으므로 캐시 등은 전체를 무효화해야 한다.
+     */
+    default void onOverflow() {
+    }
+}
@@ -0,0 +1,130 @@
+package me.hjhng125.querydsl.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 커밋된 변경 이벤트를 고정 크기 버퍼(ring buffer)에 넣고 디스패처 스레드에서 묶어서 EntityChangeListener 들에게 전달한다.
+ * <p/>
+ * 1. 커밋한 스레드는 버퍼에 넣기만 하므로 리스너의 처리 시간이 요청 처리 시간에 더해지지 않는다.<br/>
+ * 2. 디스패처는 최대 batch-size 개의 이벤트를 한 번에 꺼내 같은 엔터티의 이벤트를 합친 뒤 전달한다.<br/>
+ * 3. 버퍼가 가득 차면 커밋한 스레드를 막지 않고 이벤트를 버리며, 리스너에게 onOverflow()로 알린다.
+ * <p/>
+ * 발행, 유실된 이벤트 수는 entity.change.events 메트릭으로 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class EntityChangePublisher {
+
+    private final BlockingQueue<EntityChangeEvent> buffer;
+    private final int batchSize;
+    private final ObjectProvider<EntityChangeListener> listeners;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public EntityChangePublisher(ObjectProvider<EntityChangeListener> listeners, MeterRegistry meterRegistry,
+        @Value("${entity-change.buffer-size:65536}") int bufferSize,
+        @Value("${entity-change.batch-size:512}") int batchSize) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.listeners = listeners;
+        this.publishedCounter = Counter.builder("entity.change.events")
+            .tag("result", "published")
+            .description("리스너에게 전달한 변경 이벤트 수")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("entity.change.events")
+            .tag("result", "dropped")
+            .description("버퍼가 가득 차 버린 변경 이벤트 수")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "entity-change-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void publish(Collection<EntityChangeEvent> events) {
+        for (EntityChangeEvent event : events) {
+            if (!buffer.offer(event)) {
+                overflowed.set(true);
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        List<EntityChangeEvent> batch = new ArrayList<>(batchSize);
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                EntityChangeEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                buffer.drainTo(batch, batchSize);
+            }
+
+            dispatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void dispatch(List<EntityChangeEvent> batch) {
+        if (overflowed.getAndSet(false)) {
+            listeners.orderedStream().forEach(listener -> invoke(listener, EntityChangeListener::onOverflow));
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        EntityChanges changes = new EntityChanges();
+        batch.forEach(changes::add);
+        List<EntityChangeEvent> events = changes.toList();
+
+        listeners.orderedStream().forEach(listener -> invoke(listener, l -> l.onChanges(events)));
+        publishedCounter.increment(events.size());
+    }
+
+    /**
+     * 리스너 하나의 예외가 디스패처 스레드와 다른 리스너에 영향을 주지 않게 한다.
+     */
+    private void invoke(EntityChangeListener listener, Consumer<EntityChangeListener> action) {
+        try {
+            action.accept(listener);
+        } catch (RuntimeException e) {
+            log.warn("EntityChangeListener {} failed", listener.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package me.hjhng125.querydsl.event;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 같은 엔터티에 대한 이벤트를 하나로 합친다. (순서는 처음 변경된 순서)
+ * <p/>
+ * CREATED -> UPDATED = CREATED <br/>
+ * CREATED -> DELETED = 이벤트 없음 <br/>
+ * UPDATED -> DELETED = DELETED <br/>
+ * DELETED -> CREATED = UPDATED (같은 id로 다시 생성된 경우)
+ */
+class EntityChanges {
+
+    private final Map<Key, ChangeType> changes = new LinkedHashMap<>();
+
+    void add(EntityChangeEvent event) {
+        Key key = new Key(event.getEntityType(), event.getId());
+        ChangeType previous = changes.get(key);
+        ChangeType merged = merge(previous, event.getType());
+
+        if (merged == null) {
+            changes.remove(key);
+        } else {
+            changes.put(key, merged);
+        }
+    }
+
+    boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    List<EntityChangeEvent> toList() {
+        List<EntityChangeEvent> events = new ArrayList<>(changes.size());
+        changes.forEach((key, type) -> events.add(new EntityChangeEvent(key.entityType, key.id, type)));
+        return events;
+    }
+
+    private static ChangeType merge(ChangeType previous, ChangeType current) {
+        if (previous == null) {
+            return current;
+        }
+
+        switch (previous) {
+            case CREATED:
+                return current == ChangeType.DELETED ? null : ChangeType.CREATED;
+            case DELETED:
+                return current == ChangeType.DELETED ? ChangeType.DELETED : ChangeType.UPDATED;
+            default:
+                return current == ChangeType.DELETED ? ChangeType.DELETED : ChangeType.UPDATED;
+        }
+    }
+
+    private static class Key {
+
+        private final Class<?> entityType;
+        private final Serializable id;
+
+        private Key(Class<?> entityType, Serializable id) {
+            this.entityType = entityType;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return entityType.equals(key.entityType) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType, id);
+        }
+    }
+}
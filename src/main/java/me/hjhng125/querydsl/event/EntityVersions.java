@@ -0,0 +1,55 @@
+package me.hjhng125.querydsl.event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * 엔터티 타입 별로 커밋된 변경 수를 센다. (단조 증가하는 버전)
+ * <p/>
+ * 버전이 같으면 그 사이에 커밋된 변경이 없으므로 같은 조건의 조회 결과도 같다. (ETag 등)<br/>
+ * 변경 이벤트는 디스패처 스레드에서 전달되므로 커밋 이후 버전이 오르기까지 짧은 지연이 있다.<br/>
+ * 이벤트가 유실되면 어떤 타입이 바뀌었는지 알 수 없으므로 모든 타입의 버전을 올린다.
+ * <p/>
+ * 버전은 프로세스 안에서만 유효하므로 재시작하거나 다른 인스턴스와 구분할 수 있도록 epoch 를 함께 사용한다.<br/>
+ * 변경 이벤트를 기록하지 않는 변경(직접 실행한 sql 등)은 버전에 반영되지 않는다.
+ */
+@Component
+public class EntityVersions implements EntityChangeListener {
+
+    private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong overflows = new AtomicLong();
+
+    @Override
+    public void onChanges(List<EntityChangeEvent> events) {
+        events.forEach(event -> counter(event.getEntityType()).incrementAndGet());
+    }
+
+    @Override
+    public void onOverflow() {
+        overflows.incrementAndGet();
+    }
+
+    /**
+     * @return 주어진 엔터티 타입들의 버전의 합. 어느 하나라도 바뀌면 커진다.
+     */
+    public long version(Class<?>... entityTypes) {
+        long version = overflows.get();
+        for (Class<?> entityType : entityTypes) {
+            version += counter(entityType).get();
+        }
+        return version;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    private AtomicLong counter(Class<?> entityType) {
+        return versions.computeIfAbsent(entityType, type -> new AtomicLong());
+    }
+}
@@ -0,0 +1,68 @@
+package me.hjhng125.querydsl.event;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * 엔터티가 flush 될 때 hibernate 이벤트로 변경 이벤트를 만든다.<br/>
+ * 엔터티 클래스에 @EntityListeners 를 붙이지 않아도 모든 엔터티의 insert, update, delete 를 받을 수 있다.
+ * <p/>
+ * HibernateMetricsConfig 와 같은 이유로 모든 싱글톤 빈이 만들어진 이후에 등록한다.
+ */
+@Component
+public class HibernateEntityChangeListener implements SmartInitializingSingleton,
+    PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityChangeCollector collector;
+
+    public HibernateEntityChangeListener(EntityManagerFactory entityManagerFactory, EntityChangeCollector collector) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.collector = collector;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        collector.record(new EntityChangeEvent(event.getPersister().getMappedClass(), event.getId(), ChangeType.CREATED));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        collector.record(new EntityChangeEvent(event.getPersister().getMappedClass(), event.getId(), ChangeType.UPDATED));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        collector.record(new EntityChangeEvent(event.getPersister().getMappedClass(), event.getId(), ChangeType.DELETED));
+    }
+
+    /**
+     * 커밋 여부는 EntityChangeCollector 가 트랜잭션 동기화로 처리한다.
+     */
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package me.hjhng125.querydsl.event;
+
+import static java.util.stream.Collectors.toList;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.SimplePath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * bulk update, delete 는 영속성 컨텍스트와 hibernate 이벤트를 거치지 않고 DB에 바로 반영되므로 변경 이벤트가 발생하지 않는다.<br/>
+ * 같은 조건으로 대상 id를 먼저 조회한 뒤 bulk 연산을 실행하고 조회한 id로 변경 이벤트를 만든다.
+ * <p/>
+ * id 조회와 bulk 연산 사이에 다른 트랜잭션이 조건에 맞는 row를 추가할 수 있으므로 bulk 연산은 조건과 조회한 id를 모두 만족하는 row에만 적용한다.<br/>
+ * id 조회와 bulk 연산은 같은 트랜잭션에서 실행되며 이벤트는 커밋된 이후에 발행된다.<br/>
+ * bulk update 는 version 을 올리지 않으므로 @Version 이 있는 엔터티는 직접 올려 낙관적 락이 충돌을 감지할 수 있게 한다.<br/>
+ * id, version 필드는 JPA 메타모델에서 찾으므로 필드 이름과 타입에 상관없이 사용할 수 있다.
+ */
+@Component
+public class TrackedBulkOperations {
+
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory jpaQueryFactory;
+    private final EntityChangeCollector collector;
+
+    public TrackedBulkOperations(EntityManager entityManager, JPAQueryFactory jpaQueryFactory, EntityChangeCollector collector) {
+        this.entityManager = entityManager;
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.collector = collector;
+    }
+
+    @Transactional
+    public long update(EntityPath<?> root, Predicate where, Consumer<JPAUpdateClause> setter) {
+        SimplePath<Serializable> idPath = idPath(root);
+        List<Serializable> ids = findIds(root, idPath, where);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Optional<NumberPath<Long>> version = versionPath(root);
+
+        long affected = 0;
+        for (List<Serializable> chunk : chunks(ids)) {
+            JPAUpdateClause update = jpaQueryFactory.update(root).where(where, idPath.in(chunk));
+            setter.accept(update);
+            version.ifPresent(path -> update.set(path, path.add(1L)));
+            affected += update.execute();
+        }
+
+        record(root, ids, ChangeType.UPDATED);
+        return affected;
+    }
+
+    @Transactional
+    public long delete(EntityPath<?> root, Predicate where) {
+        SimplePath<Serializable> idPath = idPath(root);
+        List<Serializable> ids = findIds(root, idPath, where);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        long affected = 0;
+        for (List<Serializable> chunk : chunks(ids)) {
+            affected += jpaQueryFactory.delete(root).where(where, idPath.in(chunk)).execute();
+        }
+
+        record(root, ids, ChangeType.DELETED);
+        return affected;
+    }
+
+    private List<Serializable> findIds(EntityPath<?> root, SimplePath<Serializable> idPath, Predicate where) {
+        return jpaQueryFactory
+            .select(idPath)
+            .from(root)
+            .where(where)
+            .fetch();
+    }
+
+    private void record(EntityPath<?> root, List<Serializable> ids, ChangeType type) {
+        collector.record(ids.stream()
+            .map(id -> new EntityChangeEvent(root.getType(), id, type))
+            .collect(toList()));
+    }
+
+    /**
+     * version 의 타입(int, long, Integer, Long 등)과 상관없이 1 을 더하는 식은 같으므로 Long 으로 다룬다.
+     */
+    private Optional<NumberPath<Long>> versionPath(EntityPath<?> root) {
+        return entity(root).getSingularAttributes().stream()
+            .filter(SingularAttribute::isVersion)
+            .findFirst()
+            .map(attribute -> Expressions.numberPath(Long.class, root, attribute.getName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SimplePath<Serializable> idPath(EntityPath<?> root) {
+        EntityType<?> entity = entity(root);
+        SingularAttribute<?, ?> id = entity.getId(entity.getIdType().getJavaType());
+        return Expressions.simplePath((Class<Serializable>) id.getJavaType(), root, id.getName());
+    }
+
+    private EntityType<?> entity(EntityPath<?> root) {
+        return entityManager.getMetamodel().entity(root.getType());
+    }
+
+    private static List<List<Serializable>> chunks(List<Serializable> ids) {
+        List<List<Serializable>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_LIMIT) {
+            chunks.add(ids.subList(from, Math.min(from + IN_CLAUSE_LIMIT, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,18 @@
+package me.hjhng125.querydsl.event;
+
+import java.util.Collection;
+
+/**
+ * 변경 이벤트를 커밋 이전에, 변경한 트랜잭션 안에서 전달받는다.<br/>
+ * 커밋 이후에 전달받는 EntityChangeListener 와 달리 같은 트랜잭션에서 다른 테이블을 함께 갱신할 때 사용한다.
+ * <p/>
+ * hibernate flush 도중에 호출될 수 있으며, 이때 jdbc batch 가 아직 실행되지 않았을 수 있으므로
+ * 이벤트를 모아 두기만 하고 쿼리는 flush 이후에 실행해야 한다.
+ */
+public interface TransactionalEntityChangeListener {
+
+    /**
+     * @param events 합쳐지지 않은 이벤트. 트랜잭션이 없으면 이미 반영된 변경이다.
+     */
+    void onRecorded(Collection<EntityChangeEvent> events);
+}
@@ -17,4 +17,10 @@ public class MemberSearchCondition {
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+
+    /**
+     * true 이면 보관(member_archive) 테이블의 멤버도 함께 조회한다.<br/>
+     * 페이징 없는 검색(search(), searchByWhereParam())만 지원한다. 페이징 검색, searchAll()은 무시하므로 컨트롤러에서 400 으로 응답한다.
+     */
+    private boolean includeArchived;
 }
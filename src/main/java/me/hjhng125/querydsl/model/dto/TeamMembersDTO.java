@@ -0,0 +1,21 @@
+package me.hjhng125.querydsl.model.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class TeamMembersDTO {
+
+    private final Long teamId;
+    private final String teamName;
+
+    private final List<MemberDto> members;
+
+    public TeamMembersDTO(Long teamId, String teamName, List<MemberDto> members) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members;
+    }
+}
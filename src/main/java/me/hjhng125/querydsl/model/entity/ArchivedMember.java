@@ -0,0 +1,44 @@
+package me.hjhng125.querydsl.model.entity;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 비활성 멤버를 옮겨 두는 보관(cold) 테이블.<br/>
+ * member 테이블과 같은 컬럼에 보관된 시각을 더한 구조이며, id 는 member 테이블의 id 를 그대로 사용한다.
+ * <p/>
+ * MemberArchiveJob 이 jdbc 로 옮기므로 애플리케이션에서 직접 저장하지 않는다.<br/>
+ * 검색 조건의 includeArchived 가 true 일 때만 조회한다.
+ */
+@Entity
+@Getter
+@ToString(of = {"id", "username", "age"})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "member_archive", indexes = @Index(name = "idx_member_archive_team_id", columnList = "team_id"))
+public class ArchivedMember {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+
+    private String username;
+    private int age;
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    private Team team;
+
+    private LocalDateTime archivedAt;
+}
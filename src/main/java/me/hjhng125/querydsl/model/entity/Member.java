@@ -5,8 +5,11 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,6 +17,10 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_member_username", columnList = "username"), // /v6 username 접두어 검색
+    @Index(name = "idx_member_age", columnList = "age") // /v6 age 범위 검색
+})
 @Getter
 @Setter
 /**
@@ -46,8 +53,19 @@ public class Member {
     private String username;
     private int age;
 
-//    @ManyToOne(fetch = FetchType.LAZY)
-    @ManyToOne
+    /**
+     * 낙관적 락. 수정 시 where 절에 조회한 시점의 version 을 넣어 다른 트랜잭션이 먼저 수정했으면 실패한다.<br/>
+     * 재시도는 MemberUpdateService 에서 한다.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    /**
+     * 지연 로딩된 team 프록시는 hibernate.default_batch_fetch_size 설정에 의해
+     * 처음 초기화될 때 영속성 컨텍스트의 다른 team 프록시들과 함께 in 절로 조회된다.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id") // 관계의 주인
     private Team team;
 
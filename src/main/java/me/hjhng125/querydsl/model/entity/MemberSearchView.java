@@ -0,0 +1,46 @@
+package me.hjhng125.querydsl.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 멤버 검색용 비정규화 테이블. (read model)
+ * <p/>
+ * 검색 결과(MemberTeamDTO)에 팀 이름을 넣기 위해 매번 member, team 을 join 하지 않도록 팀 이름을 함께 저장한다.<br/>
+ * 검색 조건(username, age, teamName)에 인덱스를 두어 검색이 하나의 테이블의 인덱스 스캔이 되게 한다.
+ * <p/>
+ * member, team 의 변경을 MemberSearchProjection 이 같은 트랜잭션 안에서 반영하며, 애플리케이션에서 직접 수정하지 않는다.
+ */
+@Entity
+@Getter
+@Immutable
+@ToString(of = {"id", "username", "age", "teamName"})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "member_search", indexes = {
+    @Index(name = "idx_member_search_username", columnList = "username"),
+    @Index(name = "idx_member_search_age", columnList = "age"),
+    @Index(name = "idx_member_search_team_name", columnList = "team_name")
+})
+public class MemberSearchView {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+
+    private String username;
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+}
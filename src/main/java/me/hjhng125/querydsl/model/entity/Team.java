@@ -7,10 +7,13 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OptimisticLock;
 import me.hjhng125.querydsl.model.entity.Member;
 
 @Getter
@@ -25,6 +28,15 @@ public class Team {
 
     private String name;
 
+    @Version
+    private Long version;
+
+    /**
+     * 멤버의 팀 변경은 관계의 주인인 Member 의 version 으로 충돌을 감지한다.<br/>
+     * members 의 변경으로 팀의 version 이 올라가면 같은 팀으로 옮기는 모든 트랜잭션이 팀 row 에서 충돌하기 때문에 제외한다.
+     */
+    @BatchSize(size = 100) // N개의 팀의 members를 초기화할 때 N번이 아닌 ceil(N / 100)번의 쿼리로 조회한다.
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "team") // 관계의 주인이 아님.
     private Set<Member> members = new HashSet<>();
 
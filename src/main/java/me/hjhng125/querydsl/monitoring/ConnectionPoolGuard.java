@@ -0,0 +1,88 @@
+package me.hjhng125.querydsl.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 커넥션 풀에서 커넥션을 기다리는 스레드 수(pending)로 풀의 포화 상태를 판단한다.
+ * <p/>
+ * 요청이 쌓여 connection-timeout 까지 기다리다 실패하는 것보다
+ * 1. pending 이 degrade-threshold 를 넘으면 카운트 쿼리를 생략하는 등 쿼리를 줄여 응답하고<br/>
+ * 2. pending 이 reject-threshold 를 넘으면 요청을 바로 거절한다.<br/>
+ * 거절, 성능 저하 응답 횟수는 connection.pool.guard 메트릭으로 확인할 수 있다.<br/>
+ * isOverloaded(), isDegraded()는 판단만 하고, 횟수는 실제로 거절하거나 성능 저하 응답을 만든 곳에서 record*()로 남긴다.
+ * <p/>
+ * 풀 자체의 메트릭(hikaricp.connections.active, idle, pending, acquire)은 spring boot가 자동으로 등록해준다.
+ */
+@Component
+public class ConnectionPoolGuard {
+
+    private final DataSource dataSource;
+    private final int degradeThreshold;
+    private final int rejectThreshold;
+
+    private final Counter degradedCounter;
+    private final Counter rejectedCounter;
+
+    private volatile HikariPoolMXBean pool;
+
+    public ConnectionPoolGuard(DataSource dataSource, MeterRegistry meterRegistry,
+        @Value("${connection-pool.guard.degrade-threshold:5}") int degradeThreshold,
+        @Value("${connection-pool.guard.reject-threshold:20}") int rejectThreshold) {
+        this.dataSource = dataSource;
+        this.degradeThreshold = degradeThreshold;
+        this.rejectThreshold = rejectThreshold;
+        this.degradedCounter = Counter.builder("connection.pool.guard")
+            .tag("action", "degraded")
+            .description("커넥션 풀 포화로 성능 저하 응답한 요청 수")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("connection.pool.guard")
+            .tag("action", "rejected")
+            .description("커넥션 풀 포화로 거절한 요청 수")
+            .register(meterRegistry);
+    }
+
+    public boolean isOverloaded() {
+        return pendingConnections() > rejectThreshold;
+    }
+
+    public boolean isDegraded() {
+        return pendingConnections() > degradeThreshold;
+    }
+
+    public void recordRejected() {
+        rejectedCounter.increment();
+    }
+
+    public void recordDegraded() {
+        degradedCounter.increment();
+    }
+
+    private int pendingConnections() {
+        HikariPoolMXBean pool = getPool();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    /**
+     * p6spy가 DataSource를 감싸고 있으므로 unwrap 한다.<br/>
+     * HikariPoolMXBean은 첫 커넥션을 얻을 때 풀이 시작된 이후부터 조회된다.
+     */
+    private HikariPoolMXBean getPool() {
+        if (pool == null) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                }
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+        return pool;
+    }
+}
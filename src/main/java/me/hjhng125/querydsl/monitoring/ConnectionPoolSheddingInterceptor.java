@@ -0,0 +1,30 @@
+package me.hjhng125.querydsl.monitoring;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 커넥션 풀이 포화 상태이면 리포지토리를 호출하기 전에 503 으로 바로 응답한다.
+ */
+@RequiredArgsConstructor
+public class ConnectionPoolSheddingInterceptor implements HandlerInterceptor {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ConnectionPoolGuard connectionPoolGuard;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (connectionPoolGuard.isOverloaded()) {
+            connectionPoolGuard.recordRejected();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return false;
+        }
+        return true;
+    }
+}
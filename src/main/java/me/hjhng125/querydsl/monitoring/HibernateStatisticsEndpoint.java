@@ -0,0 +1,90 @@
+package me.hjhng125.querydsl.monitoring;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/hibernate <br/>
+ * hibernate.generate_statistics 로 수집한 통계를 조회한다.<br/>
+ * 쿼리 플랜 캐시의 hit, miss 로 plan_cache_max_size 가 충분한지 판단할 수 있다.
+ * <p/>
+ * DELETE 요청 시 통계를 초기화한다.
+ */
+@Component
+@Endpoint(id = "hibernate")
+@RequiredArgsConstructor
+public class HibernateStatisticsEndpoint {
+
+    private static final int MAX_QUERIES = 20;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("queryPlanCache", Map.of(
+            "hit", statistics.getQueryPlanCacheHitCount(),
+            "miss", statistics.getQueryPlanCacheMissCount()));
+        result.put("entity", Map.of(
+            "load", statistics.getEntityLoadCount(),
+            "fetch", statistics.getEntityFetchCount()));
+        result.put("collection", Map.of(
+            "load", statistics.getCollectionLoadCount(),
+            "fetch", statistics.getCollectionFetchCount()));
+        result.put("secondLevelCache", Map.of(
+            "hit", statistics.getSecondLevelCacheHitCount(),
+            "miss", statistics.getSecondLevelCacheMissCount(),
+            "put", statistics.getSecondLevelCachePutCount()));
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queries", slowestQueries(statistics));
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        getStatistics().clear();
+    }
+
+    /**
+     * 실행 시간이 가장 오래 걸린 쿼리부터 MAX_QUERIES 개의 쿼리 통계
+     */
+    private List<Map<String, Object>> slowestQueries(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+            .map(query -> {
+                QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("query", query);
+                result.put("executionCount", queryStatistics.getExecutionCount());
+                result.put("executionMaxTime", queryStatistics.getExecutionMaxTime());
+                result.put("executionAvgTime", queryStatistics.getExecutionAvgTime());
+                result.put("executionRowCount", queryStatistics.getExecutionRowCount());
+                return result;
+            })
+            .sorted(Comparator.comparingLong((Map<String, Object> query) -> (Long) query.get("executionMaxTime")).reversed())
+            .limit(MAX_QUERIES)
+            .collect(toList());
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
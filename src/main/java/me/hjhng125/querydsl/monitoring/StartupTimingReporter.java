@@ -0,0 +1,76 @@
+package me.hjhng125.querydsl.monitoring;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingLong;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep.Tag;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션이 준비되면 시작 단계 별 소요 시간을 로그로 남긴다.
+ * <p/>
+ * QuerydslApplication 이 BufferingApplicationStartup 으로 기록한 단계(StartupStep)를 이름 별로 합산하고
+ * 가장 오래 걸린 빈 생성을 함께 출력한다.<br/>
+ * 단계는 중첩되므로(ex. spring.context.refresh 안에 spring.beans.instantiate) 합계끼리 더하면 안된다.<br/>
+ * 전체 타임라인은 /actuator/startup 에서 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class StartupTimingReporter {
+
+    private static final int TOP = 10;
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+
+    private final ApplicationStartup applicationStartup;
+
+    public StartupTimingReporter(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+
+        List<TimelineEvent> events = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline().getEvents();
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Application ready in %d ms (JVM uptime)%n", ManagementFactory.getRuntimeMXBean().getUptime()));
+
+        report.append("Startup phases:\n");
+        Map<String, Long> phases = events.stream()
+            .collect(groupingBy(event -> event.getStartupStep().getName(), summingLong(event -> event.getDuration().toMillis())));
+        phases.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .forEach(phase -> report.append(String.format("  %-48s %6d ms%n", phase.getKey(), phase.getValue())));
+
+        report.append("Slowest beans:\n");
+        events.stream()
+            .filter(event -> BEAN_INSTANTIATE.equals(event.getStartupStep().getName()))
+            .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+            .limit(TOP)
+            .forEach(event -> report.append(String.format("  %-48s %6d ms%n", beanName(event), event.getDuration().toMillis())));
+
+        log.info("\n{}", report);
+    }
+
+    private String beanName(TimelineEvent event) {
+        return StreamSupport.stream(event.getStartupStep().getTags().spliterator(), false)
+            .filter(tag -> "beanName".equals(tag.getKey()))
+            .map(Tag::getValue)
+            .findFirst()
+            .orElse("?");
+    }
+}
@@ -0,0 +1,98 @@
+package me.hjhng125.querydsl.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Visitor;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 기본 생성자와 setter 로 DTO 를 만드는 projection. (Projections.bean 과 같은 방식)
+ * <p/>
+ * 프로퍼티 이름은 Projections.bean 과 같이 path 의 이름이나 as() 로 지정한 별칭을 사용한다.<br/>
+ * setter 를 찾는 것은 projection 을 만들 때 한 번만 하고, row 마다 LambdaMetafactory 로 만든 람다로 직접 호출한다.<br/>
+ * 값이 null 이면 setter 를 호출하지 않는다. (primitive 프로퍼티는 기본값이 남는다.)
+ * <p/>
+ * 람다는 직렬화하지 않고, 역직렬화할 때 타입과 인자로 다시 만든다.
+ */
+public class DirectBean<T> extends FactoryExpressionBase<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Expression<?>> args;
+    private transient Supplier<Object> factory;
+    private transient List<BiConsumer<Object, Object>> setters;
+
+    public DirectBean(Class<? extends T> type, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        initLambdas();
+    }
+
+    private void initLambdas() {
+        Class<? extends T> type = getType();
+        List<BiConsumer<Object, Object>> setters = new ArrayList<>(args.size());
+        for (Expression<?> arg : args) {
+            Method setter = findSetter(type, propertyName(arg), arg.getType());
+            setters.add(LambdaFactories.setter(type, setter.getName(), setter.getParameterTypes()[0]));
+        }
+        this.factory = LambdaFactories.noArgConstructor(type);
+        this.setters = setters;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initLambdas();
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... args) {
+        Object bean = factory.get();
+        for (int i = 0; i < setters.size(); ++i) {
+            if (args[i] != null) {
+                setters.get(i).accept(bean, args[i]);
+            }
+        }
+        return (T) bean;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    private static String propertyName(Expression<?> expression) {
+        if (expression instanceof Path) {
+            return ((Path<?>) expression).getMetadata().getName();
+        }
+        if (expression instanceof Operation && ((Operation<?>) expression).getOperator() == Ops.ALIAS) {
+            return ((Path<?>) ((Operation<?>) expression).getArg(1)).getMetadata().getName();
+        }
+        throw new IllegalArgumentException("Unsupported expression " + expression + ", use as() to name it");
+    }
+
+    private static Method findSetter(Class<?> type, String property, Class<?> valueType) {
+        String setterName = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1
+                && LambdaFactories.box(method.getParameterTypes()[0]).isAssignableFrom(LambdaFactories.box(valueType))) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("No public setter for " + type.getName() + "." + property);
+    }
+}
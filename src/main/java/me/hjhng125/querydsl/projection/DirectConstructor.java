@@ -0,0 +1,77 @@
+package me.hjhng125.querydsl.projection;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 생성자로 DTO 를 만드는 projection. (Projections.constructor, @QueryProjection 과 같은 방식)
+ * <p/>
+ * 인자의 타입으로 public 생성자를 찾는 것은 projection 을 만들 때 한 번만 하고,
+ * row 마다 생성자를 LambdaMetafactory 로 만든 람다로 직접 호출한다.
+ * <p/>
+ * 람다는 직렬화하지 않고, 역직렬화할 때 타입과 인자로 다시 만든다.
+ */
+public class DirectConstructor<T> extends FactoryExpressionBase<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Expression<?>> args;
+    private transient LambdaFactories.Instantiator instantiator;
+
+    public DirectConstructor(Class<? extends T> type, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        initInstantiator();
+    }
+
+    private void initInstantiator() {
+        this.instantiator = LambdaFactories.constructor(getType(), findParameterTypes(getType(), args.toArray(new Expression<?>[0])));
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initInstantiator();
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... args) {
+        return (T) instantiator.create(args);
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    private static Class<?>[] findParameterTypes(Class<?> type, Expression<?>[] args) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length == args.length && isAssignable(parameterTypes, args)) {
+                return parameterTypes;
+            }
+        }
+        throw new IllegalArgumentException("No public constructor of " + type.getName() + " accepts "
+            + Arrays.toString(Arrays.stream(args).map(Expression::getType).toArray()));
+    }
+
+    private static boolean isAssignable(Class<?>[] parameterTypes, Expression<?>[] args) {
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            if (!LambdaFactories.box(parameterTypes[i]).isAssignableFrom(LambdaFactories.box(args[i].getType()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
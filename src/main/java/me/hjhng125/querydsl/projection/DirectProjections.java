@@ -0,0 +1,34 @@
+package me.hjhng125.querydsl.projection;
+
+import com.querydsl.core.types.Expression;
+
+/**
+ * Projections.bean(), Projections.constructor() 와 같이 사용하되 row 마다 리플렉션 없이 DTO 를 만든다.
+ * <p/>
+ * Projections.bean/fields 는 row 마다 Method.invoke/Field.set 을, Projections.constructor 와 @QueryProjection 으로 생성한
+ * Q 타입(ConstructorExpression)은 Constructor.newInstance 를 호출한다.<br/>
+ * 여기서 만드는 projection 은 생성자, setter 를 LambdaMetafactory 로 만든 람다로 직접 호출하므로
+ * 큰 결과를 DTO 로 조회할 때 row 당 비용이 줄어든다. (src/jmh 의 ProjectionBenchmark)
+ * <p/>
+ * final 필드에 값을 넣는 Projections.fields 방식은 직접 호출할 수 있는 메소드가 없으므로 constructor() 를 사용한다.
+ * <pre>
+ * queryFactory
+ *     .select(DirectProjections.constructor(MemberTeamDTO.class, member.id, member.username, member.age, team.id, team.name))
+ *     .from(member)
+ *     .leftJoin(member.team, team)
+ *     .fetch();
+ * </pre>
+ */
+public abstract class DirectProjections {
+
+    private DirectProjections() {
+    }
+
+    public static <T> DirectBean<T> bean(Class<? extends T> type, Expression<?>... exprs) {
+        return new DirectBean<>(type, exprs);
+    }
+
+    public static <T> DirectConstructor<T> constructor(Class<? extends T> type, Expression<?>... exprs) {
+        return new DirectConstructor<>(type, exprs);
+    }
+}
@@ -0,0 +1,226 @@
+package me.hjhng125.querydsl.projection;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 생성자, setter 를 LambdaMetafactory 로 만든 람다로 감싸 직접 호출한다.
+ * <p/>
+ * 람다는 대상 생성자, 메소드를 직접 호출하는 클래스로 만들어지므로 리플렉션(Constructor.newInstance, Method.invoke)과 달리
+ * 호출마다 접근 검사, 인자 배열 검사가 없고 JIT 이 인라인할 수 있다.<br/>
+ * 람다를 만드는 비용이 크므로 타입, 시그니처 별로 한 번만 만들어 캐시한다.
+ * <p/>
+ * 람다 클래스는 이 클래스에서 접근할 수 있는 public 타입의 public 생성자, 메소드만 직접 호출할 수 있다.<br/>
+ * 그 외의 경우와 인자가 MAX_ARITY 개를 넘는 생성자는 MethodHandle 로 호출한다.
+ */
+final class LambdaFactories {
+
+    static final int MAX_ARITY = 8;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<List<Class<?>>, Instantiator> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Supplier<Object>> NO_ARG_CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final Map<List<Object>, BiConsumer<Object, Object>> SETTERS = new ConcurrentHashMap<>();
+
+    private LambdaFactories() {
+    }
+
+    /**
+     * 인자 배열로 객체를 만든다.
+     */
+    interface Instantiator {
+
+        Object create(Object[] args);
+    }
+
+    interface Constructor0 {
+
+        Object create();
+    }
+
+    interface Constructor1 {
+
+        Object create(Object a0);
+    }
+
+    interface Constructor2 {
+
+        Object create(Object a0, Object a1);
+    }
+
+    interface Constructor3 {
+
+        Object create(Object a0, Object a1, Object a2);
+    }
+
+    interface Constructor4 {
+
+        Object create(Object a0, Object a1, Object a2, Object a3);
+    }
+
+    interface Constructor5 {
+
+        Object create(Object a0, Object a1, Object a2, Object a3, Object a4);
+    }
+
+    interface Constructor6 {
+
+        Object create(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5);
+    }
+
+    interface Constructor7 {
+
+        Object create(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6);
+    }
+
+    interface Constructor8 {
+
+        Object create(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6, Object a7);
+    }
+
+    static Instantiator constructor(Class<?> type, Class<?>... parameterTypes) {
+        List<Class<?>> key = new ArrayList<>(parameterTypes.length + 1);
+        key.add(type);
+        key.addAll(Arrays.asList(parameterTypes));
+
+        return CONSTRUCTORS.computeIfAbsent(key, k -> createConstructor(type, parameterTypes));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> noArgConstructor(Class<?> type) {
+        return NO_ARG_CONSTRUCTORS.computeIfAbsent(type, t -> {
+            MethodHandle handle = findConstructor(type);
+            if (!isDirectlyAccessible(type)) {
+                return () -> invoke(handle);
+            }
+            return (Supplier<Object>) metafactory(Supplier.class, "get", MethodType.methodType(Object.class),
+                handle, MethodType.methodType(type));
+        });
+    }
+
+    /**
+     * @param setterName    setter 이름
+     * @param parameterType setter 의 인자 타입
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setter(Class<?> type, String setterName, Class<?> parameterType) {
+        return SETTERS.computeIfAbsent(Arrays.asList(type, setterName, parameterType), key -> {
+            MethodHandle handle = findSetter(type, setterName, parameterType);
+            if (!isDirectlyAccessible(type)) {
+                return (bean, value) -> invoke(handle, bean, value);
+            }
+            return (BiConsumer<Object, Object>) metafactory(BiConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle, MethodType.methodType(void.class, type, box(parameterType)));
+        });
+    }
+
+    private static Instantiator createConstructor(Class<?> type, Class<?>[] parameterTypes) {
+        MethodHandle handle = findConstructor(type, parameterTypes);
+        if (parameterTypes.length > MAX_ARITY || !isDirectlyAccessible(type)) {
+            MethodHandle spreader = handle.asType(handle.type().generic())
+                .asSpreader(Object[].class, parameterTypes.length);
+            return args -> invoke(spreader, (Object) args);
+        }
+
+        Class<?>[] boxed = Arrays.stream(parameterTypes).map(LambdaFactories::box).toArray(Class<?>[]::new);
+        MethodType samType = MethodType.genericMethodType(parameterTypes.length);
+        MethodType instantiatedType = MethodType.methodType(type, boxed);
+
+        switch (parameterTypes.length) {
+            case 0:
+                Constructor0 c0 = metafactory(Constructor0.class, "create", samType, handle, instantiatedType);
+                return args -> c0.create();
+            case 1:
+                Constructor1 c1 = metafactory(Constructor1.class, "create", samType, handle, instantiatedType);
+                return args -> c1.create(args[0]);
+            case 2:
+                Constructor2 c2 = metafactory(Constructor2.class, "create", samType, handle, instantiatedType);
+                return args -> c2.create(args[0], args[1]);
+            case 3:
+                Constructor3 c3 = metafactory(Constructor3.class, "create", samType, handle, instantiatedType);
+                return args -> c3.create(args[0], args[1], args[2]);
+            case 4:
+                Constructor4 c4 = metafactory(Constructor4.class, "create", samType, handle, instantiatedType);
+                return args -> c4.create(args[0], args[1], args[2], args[3]);
+            case 5:
+                Constructor5 c5 = metafactory(Constructor5.class, "create", samType, handle, instantiatedType);
+                return args -> c5.create(args[0], args[1], args[2], args[3], args[4]);
+            case 6:
+                Constructor6 c6 = metafactory(Constructor6.class, "create", samType, handle, instantiatedType);
+                return args -> c6.create(args[0], args[1], args[2], args[3], args[4], args[5]);
+            case 7:
+                Constructor7 c7 = metafactory(Constructor7.class, "create", samType, handle, instantiatedType);
+                return args -> c7.create(args[0], args[1], args[2], args[3], args[4], args[5], args[6]);
+            default:
+                Constructor8 c8 = metafactory(Constructor8.class, "create", samType, handle, instantiatedType);
+                return args -> c8.create(args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <F> F metafactory(Class<F> functionalInterface, String samName, MethodType samType,
+        MethodHandle implementation, MethodType instantiatedType) {
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, samName, MethodType.methodType(functionalInterface),
+                samType, implementation, instantiatedType);
+            return (F) callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot create " + functionalInterface.getSimpleName() + " for " + implementation, e);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No public constructor " + type.getName() + Arrays.toString(parameterTypes), e);
+        }
+    }
+
+    private static MethodHandle findSetter(Class<?> type, String setterName, Class<?> parameterType) {
+        for (Class<?> returnType : new Class<?>[]{void.class, type}) {
+            try {
+                return LOOKUP.findVirtual(type, setterName, MethodType.methodType(returnType, parameterType));
+            } catch (ReflectiveOperationException ignored) {
+                // 빌더 스타일(this 반환) setter 도 찾아본다.
+            }
+        }
+        throw new IllegalArgumentException("No public setter " + type.getName() + "." + setterName + "(" + parameterType.getName() + ")");
+    }
+
+    private static boolean isDirectlyAccessible(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object invoke(MethodHandle handle, Object... args) {
+        try {
+            return handle.invokeWithArguments(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
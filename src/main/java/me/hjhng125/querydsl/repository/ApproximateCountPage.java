@@ -0,0 +1,53 @@
+package me.hjhng125.querydsl.repository;
+
+import java.util.List;
+import java.util.OptionalLong;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * 전체 카운트가 추정치인지 정확한 값인지를 함께 응답하는 Page
+ */
+public class ApproximateCountPage<T> extends PageImpl<T> {
+
+    private final boolean exactTotal;
+
+    public ApproximateCountPage(List<T> content, Pageable pageable, long total, boolean exactTotal) {
+        super(content, pageable, total);
+        this.exactTotal = exactTotal;
+    }
+
+    /**
+     * 카운트 쿼리 없이 조회한 Slice로 만들 수 있는 최소 전체 카운트를 사용한다.<br/>
+     * 다음 페이지가 없다면 정확한 전체 카운트이다.
+     */
+    public static <T> ApproximateCountPage<T> fromSlice(Slice<T> slice) {
+        Pageable pageable = slice.getPageable();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long total = offset + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+
+        return new ApproximateCountPage<>(slice.getContent(), pageable, total, !slice.hasNext());
+    }
+
+    /**
+     * 컨텐츠가 페이지 사이즈보다 적으면 마지막 페이지이므로 카운트 쿼리나 추정 없이 정확한 전체 카운트를 알 수 있다.<br/>
+     * (PageableExecutionUtils.getPage()와 같은 기준) 추정치는 이보다 클 수 있으므로 먼저 확인한다.
+     */
+    static OptionalLong totalFromContent(List<?> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return OptionalLong.of(content.size());
+        }
+        if (content.size() >= pageable.getPageSize()) {
+            return OptionalLong.empty();
+        }
+        if (pageable.getOffset() == 0 || !content.isEmpty()) {
+            return OptionalLong.of(pageable.getOffset() + content.size());
+        }
+        return OptionalLong.empty();
+    }
+
+    public boolean isExactTotal() {
+        return exactTotal;
+    }
+}
@@ -0,0 +1,68 @@
+package me.hjhng125.querydsl.repository;
+
+import static java.util.stream.Collectors.toSet;
+import static me.hjhng125.querydsl.model.entity.QArchivedMember.archivedMember;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
+
+/**
+ * member(hot) 테이블의 검색 결과에 member_archive(cold) 테이블의 검색 결과를 이어 붙인다. (union all)
+ * <p/>
+ * JPQL 은 union 을 지원하지 않으므로 같은 조건으로 두 번 조회한다.<br/>
+ * 두 조회 사이에 보관된 멤버는 양쪽에서 모두 조회될 수 있으므로 hot 결과에 있는 id 는 cold 결과에서 제외한다.<br/>
+ * 반대 순서로 조회하면 그 사이에 보관된 멤버가 양쪽에서 모두 빠지므로 반드시 hot 테이블을 먼저 조회해야 한다.
+ */
+public abstract class ArchivedMemberUnion {
+
+    private ArchivedMemberUnion() {
+    }
+
+    /**
+     * @param hot member 테이블을 먼저 조회한 결과
+     */
+    public static List<MemberTeamDTO> union(JPAQueryFactory jpaQueryFactory, MemberSearchCondition condition,
+        List<MemberTeamDTO> hot) {
+
+        if (!condition.isIncludeArchived()) {
+            return hot;
+        }
+
+        Set<Long> hotIds = hot.stream()
+            .map(MemberTeamDTO::getMemberId)
+            .collect(toSet());
+
+        List<MemberTeamDTO> result = new ArrayList<>(hot);
+        searchArchive(jpaQueryFactory, condition).stream()
+            .filter(row -> !hotIds.contains(row.getMemberId()))
+            .forEach(result::add);
+        return result;
+    }
+
+    private static List<MemberTeamDTO> searchArchive(JPAQueryFactory jpaQueryFactory, MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .select(new QMemberTeamDTO(
+                archivedMember.id,
+                archivedMember.username,
+                archivedMember.age,
+                team.id,
+                team.name
+            ))
+            .from(archivedMember)
+            .leftJoin(archivedMember.team, team)
+            .where(
+                hasText(condition.getUsername()) ? archivedMember.username.eq(condition.getUsername()) : null,
+                hasText(condition.getTeamName()) ? team.name.eq(condition.getTeamName()) : null,
+                condition.getAgeGoe() != null ? archivedMember.age.goe(condition.getAgeGoe()) : null,
+                condition.getAgeLoe() != null ? archivedMember.age.loe(condition.getAgeLoe()) : null
+            )
+            .fetch();
+    }
+}
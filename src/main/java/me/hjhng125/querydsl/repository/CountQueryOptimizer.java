@@ -0,0 +1,217 @@
+package me.hjhng125.querydsl.repository;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+/**
+ * 컨텐츠 쿼리로부터 카운트 쿼리를 만든다.
+ * <p/>
+ * contentQuery::fetchCount 를 그대로 사용하면 카운트에 필요 없는 조인까지 그대로 실행된다.<br/>
+ * 1. order by 를 제거한다.<br/>
+ * 2. select 절을 count(root.id)로 바꾼다.<br/>
+ * 3. where 절이나 다른 조인에서 참조하지 않는 to-one left join 을 제거한다.<br/>
+ * left join 은 루트의 row를 줄이지 않고, to-one 관계라면 row를 늘리지도 않기 때문에 제거해도 카운트가 같다.<br/>
+ * 컬렉션 조인이나 inner join 은 row 수를 바꿀 수 있으므로 남겨둔다.
+ * <p/>
+ * group by, having, distinct 가 있는 쿼리는 카운트의 의미가 달라지므로 최적화하지 않는다.
+ */
+class CountQueryOptimizer {
+
+    private final EntityManager entityManager;
+
+    CountQueryOptimizer(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    boolean isOptimizable(JPAQuery<?> contentQuery) {
+        QueryMetadata metadata = contentQuery.getMetadata();
+
+        return metadata.getGroupBy().isEmpty()
+            && metadata.getHaving() == null
+            && !metadata.isDistinct()
+            && !metadata.getJoins().isEmpty()
+            && metadata.getJoins().get(0).getTarget() instanceof EntityPath;
+    }
+
+    JPAQuery<Long> createCountQuery(JPAQuery<?> contentQuery) {
+        QueryMetadata contentMetadata = contentQuery.getMetadata();
+        List<JoinExpression> joins = contentMetadata.getJoins();
+        EntityPath<?> root = (EntityPath<?>) joins.get(0).getTarget();
+
+        QueryMetadata countMetadata = new DefaultQueryMetadata();
+        for (JoinExpression join : joins) {
+            if (isPrunable(join, joins, contentMetadata)) {
+                continue;
+            }
+
+            countMetadata.addJoin(join.getType(), join.getTarget()); // fetch join 플래그는 복사하지 않는다.
+            if (join.getCondition() != null) {
+                countMetadata.addJoinCondition(join.getCondition());
+            }
+        }
+
+        if (contentMetadata.getWhere() != null) {
+            countMetadata.addWhere(contentMetadata.getWhere());
+        }
+
+        copyParams(contentMetadata, countMetadata);
+        countMetadata.setProjection(countExpression(root));
+
+        return new JPAQuery<>(entityManager, countMetadata);
+    }
+
+    private boolean isPrunable(JoinExpression join, List<JoinExpression> joins, QueryMetadata metadata) {
+        if (join.getType() != JoinType.LEFTJOIN || !(join.getTarget() instanceof Operation)) {
+            return false;
+        }
+
+        Operation<?> target = (Operation<?>) join.getTarget();
+        if (target.getOperator() != Ops.ALIAS) {
+            return false;
+        }
+
+        Expression<?> association = target.getArg(0);
+        if (association instanceof CollectionExpression || association instanceof MapExpression) {
+            return false;
+        }
+
+        return !referencedRoots(join, joins, metadata).contains(target.getArg(1));
+    }
+
+    /**
+     * 주어진 조인을 제외한 나머지 조인의 대상, on 조건과 where 절에서 참조하는 경로의 루트(alias)를 모은다.<br/>
+     * QueryMetadata.getJoins()는 마지막 조인을 호출할 때마다 새로 만들 수 있으므로 한 번 꺼낸 joins 에서 같은 인스턴스를 제외한다.
+     */
+    private Set<Expression<?>> referencedRoots(JoinExpression excluded, List<JoinExpression> joins, QueryMetadata metadata) {
+        Set<Expression<?>> roots = new HashSet<>();
+
+        for (JoinExpression join : joins) {
+            if (join == excluded) {
+                continue;
+            }
+
+            join.getTarget().accept(RootPathCollector.INSTANCE, roots);
+            if (join.getCondition() != null) {
+                join.getCondition().accept(RootPathCollector.INSTANCE, roots);
+            }
+        }
+
+        if (metadata.getWhere() != null) {
+            metadata.getWhere().accept(RootPathCollector.INSTANCE, roots);
+        }
+
+        return roots;
+    }
+
+    private Expression<Long> countExpression(EntityPath<?> root) {
+        JpaEntityInformation<?, ?> entityInformation = JpaEntityInformationSupport.getEntityInformation(root.getType(), entityManager);
+
+        if (entityInformation.hasCompositeId() || entityInformation.getIdAttribute() == null) {
+            return Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_AGG, root);
+        }
+
+        Path<?> id = Expressions.path(entityInformation.getIdType(), root, entityInformation.getIdAttribute().getName());
+        return Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_AGG, id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void copyParams(QueryMetadata source, QueryMetadata target) {
+        for (Map.Entry<ParamExpression<?>, Object> param : source.getParams().entrySet()) {
+            target.setParam((ParamExpression<Object>) param.getKey(), param.getValue());
+        }
+    }
+
+    private static class RootPathCollector implements Visitor<Void, Set<Expression<?>>> {
+
+        private static final RootPathCollector INSTANCE = new RootPathCollector();
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Expression<?>> context) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Expression<?>> context) {
+            expr.getArgs().forEach(arg -> arg.accept(this, context));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Expression<?>> context) {
+            expr.getArgs().forEach(arg -> arg.accept(this, context));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Expression<?>> context) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Expression<?>> context) {
+            context.add(expr.getRoot());
+            return null;
+        }
+
+        /**
+         * 서브쿼리에서 바깥 쿼리의 alias를 참조할 수 있으므로 서브쿼리 내부도 확인한다.
+         */
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Expression<?>> context) {
+            QueryMetadata metadata = expr.getMetadata();
+            for (JoinExpression join : metadata.getJoins()) {
+                join.getTarget().accept(this, context);
+                if (join.getCondition() != null) {
+                    join.getCondition().accept(this, context);
+                }
+            }
+
+            if (metadata.getWhere() != null) {
+                metadata.getWhere().accept(this, context);
+            }
+
+            if (metadata.getHaving() != null) {
+                metadata.getHaving().accept(this, context);
+            }
+
+            if (metadata.getProjection() != null) {
+                metadata.getProjection().accept(this, context);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Expression<?>> context) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, context);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.hjhng125.querydsl.repository;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+
+/**
+ * 조건이 넓은 검색(ex. ageGoe 만 있는 경우)은 정확한 카운트 쿼리가 페이지 조회 시간의 대부분을 차지한다.<br/>
+ * 팀 별 멤버 수와 나이 별 멤버 수(히스토그램)를 주기적으로 집계해두고 이를 이용해 전체 카운트를 추정한다.
+ * <p/>
+ * 팀 조건과 나이 조건은 서로 독립이라고 가정하고 각 조건의 선택도를 곱한다.<br/>
+ * username 조건은 선택도가 매우 높아 추정이 의미 없으므로 추정하지 않는다.<br/>
+ * 추정치가 exactThreshold 보다 작으면 정확한 카운트 쿼리를 실행해도 충분히 싸기 때문에 추정하지 않는다.
+ */
+class MemberCountStatistics {
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final long exactThreshold;
+    private final long ttlMillis;
+
+    private volatile Snapshot snapshot;
+
+    MemberCountStatistics(JPAQueryFactory jpaQueryFactory, long exactThreshold, long ttlMillis) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.exactThreshold = exactThreshold;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return 추정치가 exactThreshold 이상인 경우에만 추정치를 반환한다.
+     */
+    OptionalLong approximateTotal(MemberSearchCondition condition) {
+        if (hasText(condition.getUsername())) {
+            return OptionalLong.empty();
+        }
+
+        long estimated = getSnapshot().estimate(condition);
+
+        return estimated < exactThreshold ? OptionalLong.empty() : OptionalLong.of(estimated);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.isExpired(ttlMillis)) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.isExpired(ttlMillis)) {
+                    current = collect();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot collect() {
+        NumberExpression<Long> count = member.count();
+
+        Map<String, Long> teamCounts = new HashMap<>();
+        for (Tuple tuple : jpaQueryFactory
+            .select(team.name, count)
+            .from(member)
+            .join(member.team, team)
+            .groupBy(team.name)
+            .fetch()) {
+            teamCounts.put(tuple.get(team.name), tuple.get(count));
+        }
+
+        NavigableMap<Integer, Long> ageHistogram = new TreeMap<>();
+        for (Tuple tuple : jpaQueryFactory
+            .select(member.age, count)
+            .from(member)
+            .groupBy(member.age)
+            .fetch()) {
+            ageHistogram.put(tuple.get(member.age), tuple.get(count));
+        }
+
+        return new Snapshot(teamCounts, ageHistogram, System.currentTimeMillis());
+    }
+
+    private static class Snapshot {
+
+        private final Map<String, Long> teamCounts;
+        private final NavigableMap<Integer, Long> ageHistogram;
+        private final long total;
+        private final long collectedAt;
+
+        private Snapshot(Map<String, Long> teamCounts, NavigableMap<Integer, Long> ageHistogram, long collectedAt) {
+            this.teamCounts = teamCounts;
+            this.ageHistogram = ageHistogram;
+            this.total = sum(ageHistogram);
+            this.collectedAt = collectedAt;
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - collectedAt > ttlMillis;
+        }
+
+        private long estimate(MemberSearchCondition condition) {
+            if (total == 0) {
+                return 0;
+            }
+
+            double selectivity = 1.0;
+
+            if (hasText(condition.getTeamName())) {
+                selectivity *= (double) teamCounts.getOrDefault(condition.getTeamName(), 0L) / total;
+            }
+
+            if (condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+                int from = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+                int to = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+                if (from > to) {
+                    return 0;
+                }
+                selectivity *= (double) sum(ageHistogram.subMap(from, true, to, true)) / total;
+            }
+
+            return Math.round(total * selectivity);
+        }
+
+        private static long sum(Map<Integer, Long> histogram) {
+            return histogram.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        }
+    }
+}
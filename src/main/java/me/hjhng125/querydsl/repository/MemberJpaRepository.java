@@ -2,19 +2,26 @@ package me.hjhng125.querydsl.repository;
 
 import static me.hjhng125.querydsl.model.entity.QMember.member;
 import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static java.util.stream.Collectors.toList;
 import static org.springframework.util.StringUtils.hasText;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import javax.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import me.hjhng125.querydsl.model.MemberSearchCondition;
 import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
 import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
 import me.hjhng125.querydsl.model.entity.Member;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,9 +30,21 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class MemberJpaRepository {
 
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final EntityManager em;
     private final JPAQueryFactory jpaQueryFactory;
 
+    private ParallelIdRangeExecutor parallelIdRangeExecutor;
+
+    /**
+     * member.parallel-search.enabled 가 true 이면 searchByWhereParam()을 id 범위로 나누어 병렬로 조회한다.
+     */
+    @Autowired(required = false)
+    public void setParallelIdRangeExecutor(ParallelIdRangeExecutor parallelIdRangeExecutor) {
+        this.parallelIdRangeExecutor = parallelIdRangeExecutor;
+    }
+
     @Transactional
     public void save(Member member) {
         em.persist(member);
@@ -41,6 +60,44 @@ public class MemberJpaRepository {
             .getResultList();
     }
 
+    /**
+     * id 목록으로 멤버를 조회하여 요청한 id 순서대로 반환한다. 존재하지 않는 id는 제외된다.
+     * <p/>
+     * in 절의 파라미터 개수가 달라지면 매번 다른 sql이 만들어져 hibernate의 쿼리 플랜 캐시를 채우게 된다.<br/>
+     * hibernate.query.in_clause_parameter_padding 설정으로 파라미터 개수를 2의 거듭제곱으로 맞춰(마지막 값을 반복)
+     * 만들어지는 sql의 종류를 줄이고, 너무 큰 in 절이 만들어지지 않도록 id를 나누어 조회한다.
+     */
+    public List<MemberTeamDTO> findAllByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(toList());
+
+        Map<Long, MemberTeamDTO> memberById = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+
+            jpaQueryFactory
+                .select(new QMemberTeamDTO(
+                    member.id,
+                    member.username,
+                    member.age,
+                    team.id,
+                    team.name
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(chunk))
+                .fetch()
+                .forEach(memberTeamDTO -> memberById.put(memberTeamDTO.getMemberId(), memberTeamDTO));
+        }
+
+        return ids.stream()
+            .map(memberById::get)
+            .filter(Objects::nonNull)
+            .collect(toList());
+    }
+
     public List<Member> findMember() {
         return em.createQuery("select m from Member m join fetch m.team t", Member.class)
             .getResultList();
@@ -116,7 +173,7 @@ public class MemberJpaRepository {
      * @return
      */
     public List<MemberTeamDTO> searchByWhereParam(MemberSearchCondition condition) {
-        return jpaQueryFactory
+        Function<JPAQueryFactory, JPAQuery<MemberTeamDTO>> query = factory -> factory
             .select(new QMemberTeamDTO(
                 member.id,
                 member.username,
@@ -130,8 +187,13 @@ public class MemberJpaRepository {
                 usernameEquals(condition.getUsername()),
                 teamNameEquals(condition.getTeamName()),
                 betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
-                )
-            .fetch();
+                );
+
+        List<MemberTeamDTO> hot = parallelIdRangeExecutor != null
+            ? parallelIdRangeExecutor.fetch(member.id, query)
+            : query.apply(jpaQueryFactory).fetch();
+
+        return ArchivedMemberUnion.union(jpaQueryFactory, condition, hot);
     }
 
     private BooleanExpression usernameEquals(String username) {
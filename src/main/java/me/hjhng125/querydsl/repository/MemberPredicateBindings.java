@@ -0,0 +1,87 @@
+package me.hjhng125.querydsl.repository;
+
+import static java.util.stream.Collectors.toList;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import me.hjhng125.querydsl.model.entity.QMember;
+import org.springframework.data.querydsl.binding.MultiValueBinding;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+
+/**
+ * @QuerydslPredicate(root = Member.class) 로 검색할 수 있는 조건을 인덱스가 있는 path 로 제한한다.
+ * <p/>
+ * 기본 바인딩은 엔터티의 모든 프로퍼티를 eq 로 검색할 수 있어 인덱스가 없는 컬럼 조건으로 full scan 이 발생할 수 있다.<br/>
+ * 1. id, team.id (pk, fk 인덱스) : in<br/>
+ * 2. username (idx_member_username) : 접두어 검색 (like 'value%')<br/>
+ * 3. age (idx_member_age) : 값이 하나면 eq, 두 개면 between, 그 이상이면 in<br/>
+ * 그 외의 파라미터는 무시한다.
+ * <p/>
+ * 바인딩은 path 를 인자로 받으므로 루트와 관계없이 한 번만 만들어 재사용하고,
+ * 같은 값으로 만든 predicate 는 캐시하여 다시 만들지 않는다. (최대 MAX_CACHED_PREDICATES 개, 넘치면 비운다.)
+ */
+final class MemberPredicateBindings {
+
+    private static final int MAX_CACHED_PREDICATES = 10000;
+
+    private static final Map<List<Object>, Optional<Predicate>> PREDICATES = new ConcurrentHashMap<>();
+
+    private static final MultiValueBinding<NumberPath<Long>, Long> ID_IN =
+        (path, values) -> cached(path, values, () -> Optional.of(path.in(values)));
+
+    private static final MultiValueBinding<StringPath, String> USERNAME_PREFIX =
+        (path, values) -> cached(path, values, () -> Optional.ofNullable(ExpressionUtils.anyOf(values.stream()
+            .<Predicate>map(path::startsWith)
+            .collect(toList()))));
+
+    private static final MultiValueBinding<NumberPath<Integer>, Integer> AGE_RANGE =
+        (path, values) -> cached(path, values, () -> {
+            if (values.size() == 1) {
+                return Optional.of(path.eq(values.iterator().next()));
+            }
+            if (values.size() == 2) {
+                List<Integer> range = new ArrayList<>(values);
+                Collections.sort(range);
+                return Optional.of(path.between(range.get(0), range.get(1)));
+            }
+            return Optional.of(path.in(values));
+        });
+
+    private MemberPredicateBindings() {
+    }
+
+    static void customize(QuerydslBindings bindings, QMember root) {
+        bindings.excludeUnlistedProperties(true);
+        bindings.including(root.id, root.username, root.age, root.team.id);
+
+        bindings.bind(root.id).all(ID_IN);
+        bindings.bind(root.team.id).all(ID_IN);
+        bindings.bind(root.username).all(USERNAME_PREFIX);
+        bindings.bind(root.age).all(AGE_RANGE);
+    }
+
+    private static Optional<Predicate> cached(Object path, Collection<?> values, Supplier<Optional<Predicate>> factory) {
+        List<Object> key = Arrays.asList(path, new ArrayList<>(values));
+
+        Optional<Predicate> predicate = PREDICATES.get(key);
+        if (predicate == null) {
+            if (PREDICATES.size() >= MAX_CACHED_PREDICATES) {
+                PREDICATES.clear();
+            }
+            predicate = factory.get();
+            PREDICATES.put(key, predicate);
+        }
+        return predicate;
+    }
+}
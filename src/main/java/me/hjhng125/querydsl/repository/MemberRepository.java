@@ -2,10 +2,22 @@ package me.hjhng125.querydsl.repository;
 
 import java.util.List;
 import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.QMember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member>,
+    QuerydslBinderCustomizer<QMember> {
 
     List<Member> findByUsername(String username);
+
+    /**
+     * @QuerydslPredicate(root = Member.class) 는 Member 의 리포지토리인 이 인터페이스의 바인딩을 사용한다.
+     */
+    @Override
+    default void customize(QuerydslBindings bindings, QMember root) {
+        MemberPredicateBindings.customize(bindings, root);
+    }
 }
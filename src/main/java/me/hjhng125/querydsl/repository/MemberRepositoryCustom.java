@@ -5,13 +5,17 @@ import me.hjhng125.querydsl.model.MemberSearchCondition;
 import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface MemberRepositoryCustom {
 
     List<MemberTeamDTO> search(MemberSearchCondition condition);
+    List<List<MemberTeamDTO>> searchAll(List<MemberSearchCondition> conditions);
     Page<MemberTeamDTO> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDTO> searchPageSimpleV2(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDTO> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDTO> searchPageNoCountQuery(MemberSearchCondition condition, Pageable pageable);
+    ApproximateCountPage<MemberTeamDTO> searchPageApproximateCount(MemberSearchCondition condition, Pageable pageable);
+    Slice<MemberTeamDTO> searchSlice(MemberSearchCondition condition, Pageable pageable);
 
 }
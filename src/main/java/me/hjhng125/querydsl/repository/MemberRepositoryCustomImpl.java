@@ -2,22 +2,38 @@ package me.hjhng125.querydsl.repository;
 
 import static me.hjhng125.querydsl.model.entity.QMember.member;
 import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
 import static org.springframework.util.StringUtils.hasText;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
 import me.hjhng125.querydsl.model.MemberSearchCondition;
 import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
 import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
 import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.service.MemberSearchProjection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.data.support.PageableExecutionUtils;
 
@@ -43,15 +59,46 @@ import org.springframework.data.support.PageableExecutionUtils;
 public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implements MemberRepositoryCustom {
 
     private final JPAQueryFactory jpaQueryFactory;
+    private final MemberCountStatistics memberCountStatistics;
 
-    public MemberRepositoryCustomImpl(JPAQueryFactory jpaQueryFactory) {
+    private ParallelIdRangeExecutor parallelIdRangeExecutor;
+    private MemberSearchViewRepository memberSearchViewRepository;
+
+    public MemberRepositoryCustomImpl(JPAQueryFactory jpaQueryFactory,
+        @Value("${member.count.exact-threshold:10000}") long exactThreshold,
+        @Value("${member.count.statistics-ttl-millis:60000}") long statisticsTtlMillis) {
         super(Member.class);
         this.jpaQueryFactory = jpaQueryFactory;
+        this.memberCountStatistics = new MemberCountStatistics(jpaQueryFactory, exactThreshold, statisticsTtlMillis);
+    }
+
+    /**
+     * member.parallel-search.enabled 가 true 이면 search()를 id 범위로 나누어 병렬로 조회한다.<br/>
+     * member.read-model.enabled 가 true(기본값)이면 search()는 member_search 에서 조회하므로 병렬 조회를 사용하지 않는다.
+     */
+    @Autowired(required = false)
+    public void setParallelIdRangeExecutor(ParallelIdRangeExecutor parallelIdRangeExecutor) {
+        this.parallelIdRangeExecutor = parallelIdRangeExecutor;
+    }
+
+    /**
+     * member.read-model.enabled 가 true 이면 searchAll()을 제외한 검색을 team join 없이 member_search 에서 실행한다.<br/>
+     * 샤드의 리포지토리는 설정하지 않으므로 member, team 에서 조회한다.
+     */
+    @Autowired(required = false)
+    public void setMemberSearchProjection(MemberSearchProjection memberSearchProjection) {
+        this.memberSearchViewRepository = new MemberSearchViewRepository(jpaQueryFactory, memberSearchProjection,
+            memberCountStatistics);
     }
 
     @Override
     public List<MemberTeamDTO> search(MemberSearchCondition condition) {
-        return jpaQueryFactory
+        // 읽기 모델을 사용하면 병렬 조회(parallelIdRangeExecutor)까지 가지 않는다.
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.search(condition);
+        }
+
+        Function<JPAQueryFactory, JPAQuery<MemberTeamDTO>> query = factory -> factory
             .select(new QMemberTeamDTO(
                 member.id,
                 member.username,
@@ -66,8 +113,13 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
                 teamNameEquals(condition.getTeamName()),
                 ageGoe(condition.getAgeGoe()),
                 ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
+            );
+
+        List<MemberTeamDTO> hot = parallelIdRangeExecutor != null
+            ? parallelIdRangeExecutor.fetch(member.id, query)
+            : query.apply(jpaQueryFactory).fetch();
+
+        return ArchivedMemberUnion.union(jpaQueryFactory, condition, hot);
     }
 
     private BooleanExpression usernameEquals(String username) {
@@ -86,8 +138,92 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
 
+    /**
+     * 여러 조건을 각각 search() 하면 조건 수 만큼 쿼리가 발생한다.<br/>
+     * 조건을 값이 있는 필드의 조합(shape)으로 묶어 shape 별로 한번씩만 쿼리한다.<br/>
+     * username, teamName 은 in 절로, 나이 범위는 or 로 묶어 각 조건 결과의 합집합을 조회하고,<br/>
+     * 메모리에서 각 조건에 맞는 row를 나눈다.
+     *
+     * @return conditions 와 같은 순서의 검색 결과
+     */
+    @Override
+    public List<List<MemberTeamDTO>> searchAll(List<MemberSearchCondition> conditions) {
+        Map<Integer, List<MemberSearchCondition>> conditionsByShape = conditions.stream()
+            .collect(groupingBy(this::shapeOf, LinkedHashMap::new, toList()));
+
+        Map<MemberSearchCondition, List<MemberTeamDTO>> results = new IdentityHashMap<>();
+        for (List<MemberSearchCondition> group : conditionsByShape.values()) {
+            List<MemberTeamDTO> rows = jpaQueryFactory
+                .select(new QMemberTeamDTO(
+                    member.id,
+                    member.username,
+                    member.age,
+                    team.id,
+                    team.name
+                ))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(shapePredicate(group))
+                .fetch();
+
+            group.forEach(condition -> results.put(condition, rows.stream()
+                .filter(row -> matches(condition, row))
+                .collect(toList())));
+        }
+
+        return conditions.stream()
+            .map(results::get)
+            .collect(toList());
+    }
+
+    private int shapeOf(MemberSearchCondition condition) {
+        return (hasText(condition.getUsername()) ? 1 : 0)
+            | (hasText(condition.getTeamName()) ? 1 << 1 : 0)
+            | (condition.getAgeGoe() != null ? 1 << 2 : 0)
+            | (condition.getAgeLoe() != null ? 1 << 3 : 0);
+    }
+
+    private Predicate shapePredicate(List<MemberSearchCondition> group) {
+        MemberSearchCondition shape = group.get(0);
+        BooleanBuilder builder = new BooleanBuilder();
+
+        if (hasText(shape.getUsername())) {
+            builder.and(member.username.in(group.stream()
+                .map(MemberSearchCondition::getUsername)
+                .distinct()
+                .collect(toList())));
+        }
+
+        if (hasText(shape.getTeamName())) {
+            builder.and(team.name.in(group.stream()
+                .map(MemberSearchCondition::getTeamName)
+                .distinct()
+                .collect(toList())));
+        }
+
+        if (shape.getAgeGoe() != null || shape.getAgeLoe() != null) {
+            builder.and(ExpressionUtils.anyOf(group.stream()
+                .map(condition -> ExpressionUtils.allOf(ageGoe(condition.getAgeGoe()), ageLoe(condition.getAgeLoe())))
+                .distinct()
+                .collect(toList())));
+        }
+
+        return builder;
+    }
+
+    private boolean matches(MemberSearchCondition condition, MemberTeamDTO row) {
+        return (!hasText(condition.getUsername()) || condition.getUsername().equals(row.getUsername()))
+            && (!hasText(condition.getTeamName()) || condition.getTeamName().equals(row.getTeamName()))
+            && (condition.getAgeGoe() == null || row.getAge() >= condition.getAgeGoe())
+            && (condition.getAgeLoe() == null || row.getAge() <= condition.getAgeLoe());
+    }
+
     @Override
     public Page<MemberTeamDTO> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchPageSimple(condition, pageable);
+        }
+
         QueryResults<MemberTeamDTO> results = jpaQueryFactory
             .select(new QMemberTeamDTO(
                 member.id,
@@ -126,6 +262,10 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
      */
     @Override
     public Page<MemberTeamDTO> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchPageComplex(condition, pageable);
+        }
+
         List<MemberTeamDTO> contents = getMemberTeamDTOS(condition, pageable);
 
         long total = getTotalQuery(condition).fetchCount();
@@ -195,6 +335,10 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
      * 		return new PageImpl<>(content, pageable, totalSupplier.getAsLong());
      */
     public Page<MemberTeamDTO> searchPageNoCountQuery(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchPageNoCountQuery(condition, pageable);
+        }
+
         List<MemberTeamDTO> contents = getMemberTeamDTOS(condition, pageable);
 
         JPAQuery<Member> countQuery = getTotalQuery(condition);
@@ -202,17 +346,85 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
         return PageableExecutionUtils.getPage(contents, pageable, countQuery::fetchCount);
     }
 
+    /**
+     * 컨텐츠가 페이지 사이즈보다 적으면 마지막 페이지이므로 offset + 컨텐츠 수를 정확한 카운트로 사용한다.<br/>
+     * 추정한 전체 카운트가 exact-threshold 이상이면 카운트 쿼리 대신 통계로 추정한 값을 사용한다.<br/>
+     * 추정치보다 적은 경우에는 searchPageNoCountQuery()와 같이 정확한 카운트를 구한다.<br/>
+     * 응답의 exactTotal로 정확한 값인지 구분할 수 있다.
+     */
+    @Override
+    public ApproximateCountPage<MemberTeamDTO> searchPageApproximateCount(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchPageApproximateCount(condition, pageable);
+        }
+
+        List<MemberTeamDTO> contents = getMemberTeamDTOS(condition, pageable);
+
+        OptionalLong totalFromContent = ApproximateCountPage.totalFromContent(contents, pageable);
+        if (totalFromContent.isPresent()) {
+            return new ApproximateCountPage<>(contents, pageable, totalFromContent.getAsLong(), true);
+        }
+
+        OptionalLong approximateTotal = memberCountStatistics.approximateTotal(condition);
+        if (approximateTotal.isPresent()) {
+            return new ApproximateCountPage<>(contents, pageable, approximateTotal.getAsLong(), false);
+        }
+
+        JPAQuery<Member> countQuery = getTotalQuery(condition);
+        long total = PageableExecutionUtils.getPage(contents, pageable, countQuery::fetchCount).getTotalElements();
+
+        return new ApproximateCountPage<>(contents, pageable, total, true);
+    }
+
+    /**
+     * searchPageNoCountQuery()도 컨텐츠가 페이지 사이즈만큼 꽉 차면 카운트 쿼리를 날린다.<br/>
+     * 무한 스크롤처럼 전체 카운트가 필요 없는 경우 pageSize + 1 건을 조회하여 다음 페이지 여부만 판단한다.
+     */
+    @Override
+    public Slice<MemberTeamDTO> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchSlice(condition, pageable);
+        }
+
+        List<MemberTeamDTO> contents = jpaQueryFactory
+            .select(new QMemberTeamDTO(
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name
+            ))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(
+                usernameEquals(condition.getUsername()),
+                teamNameEquals(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe())
+            )
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize() + 1L)
+            .fetch();
+
+        return SliceExecutionUtils.getSlice(contents, pageable);
+    }
+
 
     /**
      * QuerydslRepositorySupport를 사용하면 JPAQueryFactory와 다르게 from()으로 시작한다.<br/>
      * 또한 getQuerydsl()이라는 메소드를 제공하는데, 이는 spring data jpa가 제공하는 Querydsl라는 헬퍼 클래스를 반환한다.<br/>
      * Querydsl 객체는 applyPagination() 메소드를 제공하는데 이는 Pageable을 인자로 받아 내부에서 페이징한다.<br/>
      * 위에서 메소드 체인으로 적용했던 offset(), limit() 코드가 줄어드는 장점이 있다.<br/>
-     * 하지만 Sort는 적용할 시 오류가 발생한다.<br/>
+     * 하지만 getQuerydsl()은 Sort 를 별칭 "member"로 바꾸고 쿼리는 QMember.member("member1")를 사용하므로 Sort 를 적용하면 오류가 발생한다.<br/>
+     * 그래서 같은 별칭으로 만든 memberQuerydsl()로 페이징, 정렬을 적용한다. (Sort 의 프로퍼티는 Member 엔터티 기준)<br/>
      * 또한 from()으로 시작하기에 JPAQueryFactory 보다 명시적이지 않다. <br/>
      */
     @Override
     public Page<MemberTeamDTO> searchPageSimpleV2(MemberSearchCondition condition, Pageable pageable) {
+        if (memberSearchViewRepository != null) {
+            return memberSearchViewRepository.searchPageSimpleV2(condition, pageable);
+        }
+
         JPQLQuery<MemberTeamDTO> query = from(member)
             .leftJoin(member.team, team)
             .where(
@@ -231,10 +443,19 @@ public class MemberRepositoryCustomImpl extends QuerydslRepositorySupport implem
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize());
 
-        JPQLQuery<MemberTeamDTO> memberTeamDTOJPQLQuery = Objects.requireNonNull(getQuerydsl()).applyPagination(pageable, query);
+        JPQLQuery<MemberTeamDTO> memberTeamDTOJPQLQuery = memberQuerydsl().applyPagination(pageable, query);
 
         return new PageImpl<>(memberTeamDTOJPQLQuery.fetch(), pageable, memberTeamDTOJPQLQuery.fetchCount());
 
     }
 
+    /**
+     * getQuerydsl()은 Member 의 별칭을 "member"로 만들어 Sort 를 "member.age"로 바꾸지만,
+     * 쿼리는 QMember.member("member1")를 사용하므로 정렬이 들어오면 JPQL 오류가 난다.<br/>
+     * 같은 별칭의 PathBuilder 로 Querydsl 을 만들어 정렬 경로를 쿼리의 별칭에 맞춘다.
+     */
+    private Querydsl memberQuerydsl() {
+        return new Querydsl(Objects.requireNonNull(getEntityManager()), new PathBuilder<>(Member.class, member.getMetadata()));
+    }
+
 }
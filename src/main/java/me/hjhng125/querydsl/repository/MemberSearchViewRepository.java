@@ -0,0 +1,194 @@
+package me.hjhng125.querydsl.repository;
+
+import static me.hjhng125.querydsl.model.entity.QMemberSearchView.memberSearchView;
+import static org.springframework.util.StringUtils.hasText;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import java.util.OptionalLong;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
+import me.hjhng125.querydsl.service.MemberSearchProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * MemberRepositoryCustomImpl 과 같은 검색을 비정규화 테이블(member_search)에서 team join 없이 실행한다.
+ * <p/>
+ * member.read-model.enabled 가 true 이면 MemberRepositoryCustomImpl 이 검색을 이 클래스로 넘긴다.<br/>
+ * 같은 트랜잭션에서 변경한 멤버도 조회되도록 검색 전에 MemberSearchProjection.synchronize()를 호출한다.<br/>
+ * 카운트 추정은 MemberRepositoryCustomImpl 과 같은 MemberCountStatistics 를 사용한다.
+ * <p/>
+ * searchAll()은 조건을 shape 별로 묶어 한 번에 조회하므로 그대로 member, team 에서 조회한다.
+ */
+class MemberSearchViewRepository {
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final MemberSearchProjection projection;
+    private final MemberCountStatistics memberCountStatistics;
+
+    MemberSearchViewRepository(JPAQueryFactory jpaQueryFactory, MemberSearchProjection projection,
+        MemberCountStatistics memberCountStatistics) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.projection = projection;
+        this.memberCountStatistics = memberCountStatistics;
+    }
+
+    public List<MemberTeamDTO> search(MemberSearchCondition condition) {
+        projection.synchronize();
+
+        return ArchivedMemberUnion.union(jpaQueryFactory, condition, contentQuery(condition).fetch());
+    }
+
+    public Page<MemberTeamDTO> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        return searchPageNoCountQuery(condition, pageable);
+    }
+
+    public Page<MemberTeamDTO> searchPageSimpleV2(MemberSearchCondition condition, Pageable pageable) {
+        projection.synchronize();
+
+        List<MemberTeamDTO> contents = contentQuery(condition)
+            .orderBy(orderSpecifiers(pageable.getSort()))
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+
+        return PageableExecutionUtils.getPage(contents, pageable, () -> count(condition));
+    }
+
+    public Page<MemberTeamDTO> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        projection.synchronize();
+
+        return new PageImpl<>(contents(condition, pageable), pageable, count(condition));
+    }
+
+    public Page<MemberTeamDTO> searchPageNoCountQuery(MemberSearchCondition condition, Pageable pageable) {
+        projection.synchronize();
+
+        return PageableExecutionUtils.getPage(contents(condition, pageable), pageable, () -> count(condition));
+    }
+
+    public ApproximateCountPage<MemberTeamDTO> searchPageApproximateCount(MemberSearchCondition condition, Pageable pageable) {
+        projection.synchronize();
+
+        List<MemberTeamDTO> contents = contents(condition, pageable);
+
+        OptionalLong totalFromContent = ApproximateCountPage.totalFromContent(contents, pageable);
+        if (totalFromContent.isPresent()) {
+            return new ApproximateCountPage<>(contents, pageable, totalFromContent.getAsLong(), true);
+        }
+
+        OptionalLong approximateTotal = memberCountStatistics.approximateTotal(condition);
+        if (approximateTotal.isPresent()) {
+            return new ApproximateCountPage<>(contents, pageable, approximateTotal.getAsLong(), false);
+        }
+
+        long total = PageableExecutionUtils.getPage(contents, pageable, () -> count(condition)).getTotalElements();
+        return new ApproximateCountPage<>(contents, pageable, total, true);
+    }
+
+    public Slice<MemberTeamDTO> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        projection.synchronize();
+
+        List<MemberTeamDTO> contents = contentQuery(condition)
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize() + 1L)
+            .fetch();
+
+        return SliceExecutionUtils.getSlice(contents, pageable);
+    }
+
+    private List<MemberTeamDTO> contents(MemberSearchCondition condition, Pageable pageable) {
+        return contentQuery(condition)
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+    }
+
+    private JPAQuery<MemberTeamDTO> contentQuery(MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .select(new QMemberTeamDTO(
+                memberSearchView.id,
+                memberSearchView.username,
+                memberSearchView.age,
+                memberSearchView.teamId,
+                memberSearchView.teamName
+            ))
+            .from(memberSearchView)
+            .where(where(condition));
+    }
+
+    private long count(MemberSearchCondition condition) {
+        return jpaQueryFactory
+            .select(memberSearchView.count())
+            .from(memberSearchView)
+            .where(where(condition))
+            .fetchOne();
+    }
+
+    private Predicate[] where(MemberSearchCondition condition) {
+        return new Predicate[]{
+            usernameEquals(condition.getUsername()),
+            teamNameEquals(condition.getTeamName()),
+            ageGoe(condition.getAgeGoe()),
+            ageLoe(condition.getAgeLoe())
+        };
+    }
+
+    private BooleanExpression usernameEquals(String username) {
+        return hasText(username) ? memberSearchView.username.eq(username) : null;
+    }
+
+    private BooleanExpression teamNameEquals(String teamName) {
+        return hasText(teamName) ? memberSearchView.teamName.eq(teamName) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? memberSearchView.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? memberSearchView.age.loe(ageLoe) : null;
+    }
+
+    /**
+     * searchPageSimpleV2()는 Member 엔터티의 프로퍼티로 정렬하므로 같은 이름을 member_search 의 컬럼에 대응시킨다.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private OrderSpecifier<?>[] orderSpecifiers(Sort sort) {
+        return sort.stream()
+            .map(order -> new OrderSpecifier(order.isAscending() ? Order.ASC : Order.DESC, sortPath(order.getProperty())))
+            .toArray(OrderSpecifier[]::new);
+    }
+
+    private ComparableExpressionBase<?> sortPath(String property) {
+        switch (property) {
+            case "id":
+            case "memberId":
+                return memberSearchView.id;
+            case "username":
+                return memberSearchView.username;
+            case "age":
+                return memberSearchView.age;
+            case "team.id":
+            case "teamId":
+                return memberSearchView.teamId;
+            case "team.name":
+            case "teamName":
+                return memberSearchView.teamName;
+            default:
+                throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package me.hjhng125.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import me.hjhng125.querydsl.event.EntityChangeEvent;
+import me.hjhng125.querydsl.event.EntityChangeListener;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * id 로 조회한 MemberTeamDTO 를 max-size 개까지 캐시한다. (LRU)
+ * <p/>
+ * 커밋된 변경 이벤트로 무효화한다.<br/>
+ * 1. 멤버가 바뀌면 해당 멤버를 지운다.<br/>
+ * 2. 팀이 바뀌면(팀 이름) 해당 팀의 멤버를 모두 지운다.<br/>
+ * 3. 이벤트가 유실되면 전체를 지운다.
+ * <p/>
+ * 조회하는 동안 무효화가 일어나면 조회한 값이 이미 오래된 값일 수 있으므로 캐시에 넣지 않는다.<br/>
+ * 이벤트는 디스패처 스레드에서 전달되므로 커밋 이후 무효화되기까지 짧은 지연이 있다.<br/>
+ * 없는 멤버는 캐시하지 않는다.
+ * <p/>
+ * 적중, 실패 수는 member.cache.requests 메트릭으로 확인할 수 있다.
+ */
+@Component
+public class MemberTeamCache implements EntityChangeListener {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final Map<Long, MemberTeamDTO> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public MemberTeamCache(MemberJpaRepository memberJpaRepository, MeterRegistry meterRegistry,
+        @Value("${member.cache.max-size:10000}") int maxSize) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MemberTeamDTO> eldest) {
+                return size() > maxSize;
+            }
+        });
+
+        this.hitCounter = Counter.builder("member.cache.requests")
+            .tag("result", "hit")
+            .description("캐시에서 찾은 멤버 조회 수")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("member.cache.requests")
+            .tag("result", "miss")
+            .description("데이터베이스에서 조회한 멤버 조회 수")
+            .register(meterRegistry);
+        Gauge.builder("member.cache.size", cache, Map::size)
+            .description("캐시된 멤버 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 캐시에 없으면 한 번의 쿼리로 조회한다.
+     */
+    public Optional<MemberTeamDTO> get(Long memberId) {
+        MemberTeamDTO cached = cache.get(memberId);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+
+        missCounter.increment();
+        long generation = invalidations.get();
+        Optional<MemberTeamDTO> loaded = memberJpaRepository.findAllByIds(Collections.singletonList(memberId)).stream()
+            .findFirst();
+
+        loaded.ifPresent(memberTeamDTO -> {
+            synchronized (cache) {
+                if (generation == invalidations.get()) {
+                    cache.put(memberId, memberTeamDTO);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    @Override
+    public void onChanges(List<EntityChangeEvent> events) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            for (EntityChangeEvent event : events) {
+                if (event.getEntityType() == Member.class) {
+                    cache.remove(event.getId());
+                } else if (event.getEntityType() == Team.class) {
+                    cache.values().removeIf(memberTeamDTO -> Objects.equals(memberTeamDTO.getTeamId(), event.getId()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onOverflow() {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.clear();
+        }
+    }
+}
@@ -2,15 +2,21 @@ package me.hjhng125.querydsl.repository;
 
 import static me.hjhng125.querydsl.model.entity.QMember.member;
 import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static java.util.stream.Collectors.toList;
 import static org.springframework.util.StringUtils.hasText;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import java.util.List;
+import java.util.Objects;
 import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
 import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
@@ -75,6 +81,67 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         );
     }
 
+    public Page<MemberTeamDTO> customApplyDeferredJoinPagination(MemberSearchCondition condition, Pageable pageable) {
+        return applyDeferredJoinPagination(pageable,
+            idQuery -> idQuery
+                .select(member.id)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEquals(condition.getUsername()),
+                    teamNameEquals(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe())),
+            ids -> select(new QMemberTeamDTO(
+                member.id,
+                member.username,
+                member.age,
+                team.id,
+                team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids)),
+            MemberTeamDTO::getMemberId
+        );
+    }
+
+    public Slice<Member> customApplySlicing(MemberSearchCondition condition, Pageable pageable) {
+        return applySlicing(pageable,
+            jpaQueryFactory -> jpaQueryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team)
+                .where(usernameEquals(condition.getUsername()),
+                    teamNameEquals(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe()))
+        );
+    }
+
+    /**
+     * 멤버들의 team 프록시를 batchSize 만큼 in 절로 묶어서 초기화한다.<br/>
+     * 프록시를 파라미터로 바인딩하면 식별자만 사용하기 때문에 프록시가 초기화되지 않는다.
+     */
+    public List<Team> initializeTeams(List<Member> members, int batchSize) {
+        List<Team> teams = members.stream()
+            .map(Member::getTeam)
+            .filter(Objects::nonNull)
+            .collect(toList());
+
+        return fetchInBatches(teams, batchSize,
+            batch -> selectFrom(team)
+                .where(team.in(batch)));
+    }
+
+    /**
+     * 이미 조회된 팀들을 batchSize 만큼 묶어 members를 페치 조인한다.<br/>
+     * 영속성 컨텍스트에 있는 같은 팀 엔터티가 반환되며 members 컬렉션이 초기화된다.
+     */
+    public List<Team> initializeMembers(List<Team> teams, int batchSize) {
+        return fetchInBatches(teams, batchSize,
+            batch -> selectFrom(team).distinct()
+                .leftJoin(team.members, member).fetchJoin()
+                .where(team.in(batch)));
+    }
+
     private BooleanExpression usernameEquals(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
@@ -0,0 +1,124 @@
+package me.hjhng125.querydsl.repository;
+
+import static java.util.stream.Collectors.toList;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 페이징 없는 큰 조회를 id 범위로 나누어 병렬로 실행한다.
+ * <p/>
+ * 1. 루트 엔터티의 최소, 최대 id를 조회한다. (pk 인덱스만 사용)<br/>
+ * 2. id 범위를 최대 parallelism 개의 같은 크기의 구간으로 나눈다. 구간은 min-range-size 보다 작게 나누지 않는다.<br/>
+ * 3. 각 구간은 같은 쿼리에 id between 조건을 추가하여 fork-join pool 에서 각자의 EntityManager(커넥션)로 실행한다.<br/>
+ * 4. 결과를 id 구간 순서대로 이어 붙인다.
+ * <p/>
+ * 구간마다 별도의 커넥션, 트랜잭션으로 조회하므로 구간 사이에 하나의 스냅샷을 보장하지 않으며
+ * 조회한 엔터티는 준영속 상태이므로 DTO 프로젝션 조회에 사용한다.<br/>
+ * parallelism 만큼 커넥션을 동시에 사용하므로 커넥션 풀 크기보다 충분히 작게 설정해야 한다.
+ * <p/>
+ * member.parallel-search.enabled 가 true 일 때만 빈으로 등록되며, 없으면 리포지토리는 하나의 쿼리로 조회한다.
+ */
+@Component
+@ConditionalOnProperty(name = "member.parallel-search.enabled", havingValue = "true")
+public class ParallelIdRangeExecutor {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final long minRangeSize;
+
+    public ParallelIdRangeExecutor(EntityManagerFactory entityManagerFactory,
+        @Value("${member.parallel-search.parallelism:4}") int parallelism,
+        @Value("${member.parallel-search.min-range-size:10000}") long minRangeSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.pool = new ForkJoinPool(parallelism);
+        this.parallelism = parallelism;
+        this.minRangeSize = minRangeSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param idPath              루트 엔터티의 id (ex. member.id). 부모 경로(member)에서 최소, 최대 id 를 조회한다.
+     * @param queryFunction       조회 쿼리. 각 구간에서 새 JPAQueryFactory 로 다시 만든다.
+     */
+    public <T> List<T> fetch(NumberPath<Long> idPath, Function<JPAQueryFactory, JPAQuery<T>> queryFunction) {
+        NumberExpression<Long> minId = idPath.min();
+        NumberExpression<Long> maxId = idPath.max();
+        Tuple bounds = execute(factory -> factory
+            .select(minId, maxId)
+            .from((EntityPath<?>) idPath.getMetadata().getParent())
+            .fetchOne());
+
+        Long min = bounds == null ? null : bounds.get(minId);
+        Long max = bounds == null ? null : bounds.get(maxId);
+        if (min == null || max == null) {
+            return Collections.emptyList();
+        }
+
+        List<long[]> ranges = split(min, max);
+        if (ranges.size() == 1) {
+            return execute(factory -> queryFunction.apply(factory).fetch());
+        }
+
+        List<CompletableFuture<List<T>>> futures = ranges.stream()
+            .map(range -> CompletableFuture.supplyAsync(() -> execute(factory -> queryFunction.apply(factory)
+                .where(idPath.between(range[0], range[1]))
+                .fetch()), pool))
+            .collect(toList());
+
+        try {
+            List<T> result = new ArrayList<>();
+            futures.forEach(future -> result.addAll(future.join()));
+            return result;
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    List<long[]> split(long min, long max) {
+        long span = max - min + 1;
+        int rangeCount = (int) Math.max(1, Math.min(parallelism, span / minRangeSize));
+        long rangeSize = (span + rangeCount - 1) / rangeCount;
+
+        List<long[]> ranges = new ArrayList<>(rangeCount);
+        for (long from = min; from <= max; from += rangeSize) {
+            ranges.add(new long[]{from, Math.min(from + rangeSize - 1, max)});
+        }
+        return ranges;
+    }
+
+    private <R> R execute(Function<JPAQueryFactory, R> action) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return action.apply(new JPAQueryFactory(entityManager));
+        } finally {
+            entityManager.close();
+        }
+    }
+}
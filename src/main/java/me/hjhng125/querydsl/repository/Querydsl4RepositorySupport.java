@@ -1,17 +1,28 @@
 package me.hjhng125.querydsl.repository;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
@@ -37,10 +48,13 @@ import org.springframework.util.Assert;
 @Repository
 public abstract class Querydsl4RepositorySupport {
 
+    protected static final int DEFAULT_BATCH_SIZE = 100;
+
     private final Class<?> domainClass;
-    private Querydsl querydsl;
+    private volatile Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory jpaQueryFactory;
+    private CountQueryOptimizer countQueryOptimizer;
 
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
@@ -51,29 +65,48 @@ public abstract class Querydsl4RepositorySupport {
     public void setEntityManager(EntityManager entityManager) {
         Assert.notNull(entityManager, "EntityManager must not be null!");
 
-        // Sort를 위한 세팅으로 path를 제대로 정해줘야 Sort 버그가 해결된다.
-        JpaEntityInformation<?, ?> entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
-        SimpleEntityPathResolver resolver = SimpleEntityPathResolver.INSTANCE;
-        EntityPath<?> path = resolver.createPath(entityInformation.getJavaType());
-
         this.entityManager = entityManager;
-        this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.countQueryOptimizer = new CountQueryOptimizer(entityManager);
     }
 
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
-        Assert.notNull(querydsl, "Querydsl must not be null!");
         Assert.notNull(jpaQueryFactory, "QueryFactory must not be null!");
+        Assert.notNull(countQueryOptimizer, "CountQueryOptimizer must not be null!");
     }
 
     protected JPAQueryFactory getJpaQueryFactory() {
         return jpaQueryFactory;
     }
 
+    /**
+     * Querydsl 은 엔터티 메타모델이 필요하기 때문에 처음 사용할 때 만든다.<br/>
+     * 빈 초기화 시점에 만들면 EntityManagerFactory가 준비될 때까지 빈 생성이 멈추므로
+     * EntityManagerFactory를 백그라운드에서 초기화하는(bootstrap-mode: deferred) 이점이 사라진다.
+     */
     protected Querydsl getQuerydsl() {
-        return querydsl;
+        Querydsl current = querydsl;
+        if (current == null) {
+            synchronized (this) {
+                current = querydsl;
+                if (current == null) {
+                    current = createQuerydsl();
+                    querydsl = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Querydsl createQuerydsl() {
+        // Sort를 위한 세팅으로 path를 제대로 정해줘야 Sort 버그가 해결된다.
+        JpaEntityInformation<?, ?> entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+        SimpleEntityPathResolver resolver = SimpleEntityPathResolver.INSTANCE;
+        EntityPath<?> path = resolver.createPath(entityInformation.getJavaType());
+
+        return new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
     }
 
     protected EntityManager getEntityManager() {
@@ -88,13 +121,21 @@ public abstract class Querydsl4RepositorySupport {
         return getJpaQueryFactory().selectFrom(path);
     }
 
+    /**
+     * 카운트 쿼리를 따로 넘기지 않으면 컨텐츠 쿼리에서 order by, 프로젝션, 참조되지 않는 left join 을 제거한 카운트 쿼리를 만든다.<br/>
+     * 카운트 쿼리는 applyPagination()이 컨텐츠 쿼리에 정렬을 추가하기 전에 만든다.
+     */
     protected <T> Page<T> applyPagination(Pageable pageable,
         Function<JPAQueryFactory, JPAQuery<T>> contentQueryFunction) {
 
         JPAQuery<T> contentQuery = contentQueryFunction.apply(getJpaQueryFactory());
+        LongSupplier totalSupplier = countQueryOptimizer.isOptimizable(contentQuery)
+            ? countQueryOptimizer.createCountQuery(contentQuery)::fetchOne
+            : contentQuery::fetchCount;
+
         List<T> content = getQuerydsl().applyPagination(pageable, contentQuery).fetch();
 
-        return PageableExecutionUtils.getPage(content, pageable, contentQuery::fetchCount);
+        return PageableExecutionUtils.getPage(content, pageable, totalSupplier);
     }
 
     protected <T, ID> Page<T> applyPagination(Pageable pageable,
@@ -108,4 +149,84 @@ public abstract class Querydsl4RepositorySupport {
 
         return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
     }
+
+    /**
+     * Deferred join (late row lookup) 페이징<br/>
+     * offset이 큰 페이지를 정렬해서 조회하면 db는 건너뛰는 모든 row를 조인하여 만들어야 한다.<br/>
+     * 1. 검색 조건과 정렬로 id만 페이징하여 조회한다. (가능하면 인덱스만으로 처리된다.)<br/>
+     * 2. 조회한 id로 in 절을 사용해 실제 컨텐츠를 조회하고 1번의 순서대로 정렬한다.<br/>
+     * 따라서 offset 비용이 전체 row의 크기가 아닌 id의 크기에 비례하게 된다.
+     * <p/>
+     * 카운트 쿼리는 id 쿼리로부터 만든다.
+     */
+    protected <T, ID> Page<T> applyDeferredJoinPagination(Pageable pageable,
+        Function<JPAQueryFactory, JPAQuery<ID>> idQueryFunction,
+        Function<List<ID>, JPAQuery<T>> contentQueryFunction,
+        Function<T, ID> idExtractor) {
+
+        JPAQuery<ID> idQuery = idQueryFunction.apply(getJpaQueryFactory());
+        LongSupplier totalSupplier = countQueryOptimizer.isOptimizable(idQuery)
+            ? countQueryOptimizer.createCountQuery(idQuery)::fetchOne
+            : idQuery::fetchCount;
+
+        List<ID> ids = getQuerydsl().applyPagination(pageable, idQuery).fetch();
+        if (ids.isEmpty()) {
+            return PageableExecutionUtils.getPage(Collections.emptyList(), pageable, totalSupplier);
+        }
+
+        Map<ID, T> contentById = contentQueryFunction.apply(ids).fetch().stream()
+            .collect(toMap(idExtractor, Function.identity(), (first, second) -> first));
+
+        List<T> content = ids.stream()
+            .map(contentById::get)
+            .filter(Objects::nonNull)
+            .collect(toList());
+
+        return PageableExecutionUtils.getPage(content, pageable, totalSupplier);
+    }
+
+    /**
+     * 카운트 쿼리 없이 limit + 1 건을 조회하여 다음 페이지 여부만 판단한다.
+     */
+    protected <T> Slice<T> applySlicing(Pageable pageable,
+        Function<JPAQueryFactory, JPAQuery<T>> contentQueryFunction) {
+
+        JPAQuery<T> contentQuery = contentQueryFunction.apply(getJpaQueryFactory());
+        if (pageable.isPaged()) {
+            contentQuery
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L);
+        }
+
+        List<T> content = getQuerydsl().applySorting(pageable.getSort(), contentQuery).fetch();
+
+        return SliceExecutionUtils.getSlice(content, pageable);
+    }
+
+    protected <T, K> List<T> fetchInBatches(Collection<K> keys,
+        Function<List<K>, JPAQuery<T>> batchQueryFunction) {
+
+        return fetchInBatches(keys, DEFAULT_BATCH_SIZE, batchQueryFunction);
+    }
+
+    /**
+     * 연관된 엔터티를 key(보통 id나 엔터티) 목록으로 in 절을 사용해 batchSize 만큼 묶어서 조회한다.<br/>
+     * N개의 key에 대해 N번이 아닌 ceil(N / batchSize)번의 쿼리가 발생한다.<br/>
+     * 조회된 엔터티는 영속성 컨텍스트에 올라가므로 이후 지연 로딩 프록시를 초기화할 때 추가 쿼리가 발생하지 않는다.
+     */
+    protected <T, K> List<T> fetchInBatches(Collection<K> keys, int batchSize,
+        Function<List<K>, JPAQuery<T>> batchQueryFunction) {
+
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0!");
+
+        List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<T> result = new ArrayList<>(distinctKeys.size());
+
+        for (int from = 0; from < distinctKeys.size(); from += batchSize) {
+            List<K> batch = distinctKeys.subList(from, Math.min(from + batchSize, distinctKeys.size()));
+            result.addAll(batchQueryFunction.apply(batch).fetch());
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,30 @@
+package me.hjhng125.querydsl.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * 무한 스크롤과 같이 전체 카운트가 필요 없는 화면에서는 Page 대신 Slice를 반환한다.<br/>
+ * 컨텐츠를 pageSize + 1 만큼 조회하여 한 건이 더 조회되었다면 다음 페이지가 있다고 판단한다.<br/>
+ * 따라서 PageableExecutionUtils.getPage()와 다르게 카운트 쿼리는 절대 발생하지 않는다.
+ */
+public abstract class SliceExecutionUtils {
+
+    private SliceExecutionUtils() {
+    }
+
+    /**
+     * @param contents pageSize + 1 로 limit을 걸어 조회한 컨텐츠
+     */
+    public static <T> Slice<T> getSlice(List<T> contents, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(contents, pageable, false);
+        }
+
+        boolean hasNext = contents.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? contents.subList(0, pageable.getPageSize()) : contents, pageable, hasNext);
+    }
+}
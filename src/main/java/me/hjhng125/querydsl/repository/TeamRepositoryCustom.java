@@ -0,0 +1,11 @@
+package me.hjhng125.querydsl.repository;
+
+import me.hjhng125.querydsl.model.dto.TeamMembersDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TeamRepositoryCustom {
+
+    Page<TeamMembersDTO> searchTeamMembers(Pageable pageable);
+
+}
@@ -0,0 +1,85 @@
+package me.hjhng125.querydsl.repository;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static java.util.stream.Collectors.toList;
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import me.hjhng125.querydsl.model.dto.MemberDto;
+import me.hjhng125.querydsl.model.dto.QMemberDto;
+import me.hjhng125.querydsl.model.dto.TeamMembersDTO;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class TeamRepositoryCustomImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory jpaQueryFactory;
+
+    public TeamRepositoryCustomImpl(JPAQueryFactory jpaQueryFactory) {
+        this.jpaQueryFactory = jpaQueryFactory;
+    }
+
+    /**
+     * join(team.members, member).fetchJoin() 으로 팀과 멤버를 함께 조회하면 멤버 수 만큼 팀 row가 중복되어 distinct가 필요하고,<br/>
+     * 컬렉션 페치 조인에 offset, limit을 적용하면 hibernate가 모든 데이터를 메모리에 올린 뒤 페이징한다.
+     * <p/>
+     * 따라서 쿼리를 두번으로 나눈다.<br/>
+     * 1. 팀의 id, name 만 sql에서 페이징하여 조회한다.<br/>
+     * 2. 조회된 팀 id로 멤버를 in 절로 한번에 조회하고, GroupBy.transform()으로 팀 id 별로 묶는다.<br/>
+     * 엔터티가 아닌 DTO로 조회하기 때문에 중복된 팀 엔터티가 만들어지지 않는다.<br/>
+     * 정렬은 팀 id 오름차순으로 고정한다.
+     */
+    @Override
+    public Page<TeamMembersDTO> searchTeamMembers(Pageable pageable) {
+        List<Tuple> teams = jpaQueryFactory
+            .select(team.id, team.name)
+            .from(team)
+            .orderBy(team.id.asc())
+            .offset(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .fetch();
+
+        Map<Long, List<MemberDto>> membersByTeamId = getMembersByTeamId(teams.stream()
+            .map(tuple -> tuple.get(team.id))
+            .collect(toList()));
+
+        List<TeamMembersDTO> contents = teams.stream()
+            .map(tuple -> new TeamMembersDTO(
+                tuple.get(team.id),
+                tuple.get(team.name),
+                membersByTeamId.getOrDefault(tuple.get(team.id), Collections.emptyList())))
+            .collect(toList());
+
+        JPAQuery<Team> countQuery = jpaQueryFactory
+            .selectFrom(team);
+
+        return PageableExecutionUtils.getPage(contents, pageable, countQuery::fetchCount);
+    }
+
+    /**
+     * member.team.id는 외래키 컬럼이므로 team과 join 하지 않는다.
+     */
+    private Map<Long, List<MemberDto>> getMembersByTeamId(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return jpaQueryFactory
+            .from(member)
+            .where(member.team.id.in(teamIds))
+            .orderBy(member.id.asc())
+            .transform(groupBy(member.team.id).as(list(new QMemberDto(
+                member.username,
+                member.age
+            ))));
+    }
+}
@@ -0,0 +1,215 @@
+package me.hjhng125.querydsl.service;
+
+import static java.util.stream.Collectors.toList;
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.hjhng125.querydsl.event.ChangeType;
+import me.hjhng125.querydsl.event.EntityChangeCollector;
+import me.hjhng125.querydsl.event.EntityChangeEvent;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 조건에 맞는 비활성 멤버를 member(hot) 테이블에서 member_archive(cold) 테이블로 옮긴다.
+ * <p/>
+ * 검색은 기본적으로 member 테이블만 조회하므로 비활성 멤버가 빠진 만큼 hot 테이블의 인덱스와 스캔 범위가 작아진다.<br/>
+ * 보관된 멤버는 검색 조건의 includeArchived 가 true 일 때 함께 조회된다. (ArchivedMemberUnion)
+ * <p/>
+ * batch-size 개씩 하나의 트랜잭션에서 옮긴다.<br/>
+ * 1. 조건에 맞는 멤버의 id 를 id 순서로 batch-size 개 조회한다.<br/>
+ * 2. 해당 row 에 쓰기 락을 건 뒤 조건을 다시 확인한다. (조회 이후 다른 트랜잭션이 변경했을 수 있다.)<br/>
+ * 3. insert select 로 member_archive 에 복사하고 member 에서 삭제한다.
+ * <p/>
+ * 보관 조건은 member.archive.* 로 설정하며, 설정된 조건이 없으면 아무 멤버도 옮기지 않는다.<br/>
+ * member.archive.interval-millis 가 0 보다 크면 주기적으로 실행한다.<br/>
+ * jdbc 로 삭제하므로 hibernate 이벤트 대신 삭제 이벤트를 직접 기록한다.
+ */
+@Slf4j
+@Component
+public class MemberArchiveJob {
+
+    private static final String LOCK_SQL =
+        "select member_id from member where member_id in (:ids) for update";
+    private static final String COPY_SQL =
+        "insert into member_archive (member_id, username, age, version, team_id, archived_at) "
+            + "select member_id, username, age, version, team_id, :archivedAt from member where member_id in (:ids)";
+    private static final String DELETE_SQL =
+        "delete from member where member_id in (:ids)";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityChangeCollector changeCollector;
+    private final Predicate configuredCondition;
+    private final long intervalMillis;
+    private final int batchSize;
+
+    private final Timer archiveTimer;
+    private final Counter archivedCounter;
+
+    public MemberArchiveJob(JPAQueryFactory jpaQueryFactory, JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager, EntityChangeCollector changeCollector, MeterRegistry meterRegistry,
+        @Value("${member.archive.without-team:false}") boolean withoutTeam,
+        @Value("${member.archive.age-goe:#{null}}") Integer ageGoe,
+        @Value("${member.archive.age-loe:#{null}}") Integer ageLoe,
+        @Value("${member.archive.interval-millis:0}") long intervalMillis,
+        @Value("${member.archive.batch-size:1000}") int batchSize) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeCollector = changeCollector;
+        this.configuredCondition = archiveCondition(withoutTeam, ageGoe, ageLoe);
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+
+        this.archiveTimer = Timer.builder("member.archive")
+            .description("비활성 멤버를 보관 테이블로 옮기는 데 걸린 시간")
+            .register(meterRegistry);
+        this.archivedCounter = Counter.builder("member.archive.moved")
+            .description("보관 테이블로 옮긴 멤버 수")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * member.archive.* 로 설정한 조건에 맞는 멤버를 옮긴다.
+     *
+     * @return 옮긴 멤버 수
+     */
+    public int archive() {
+        if (configuredCondition == null) {
+            log.info("No member archive condition is configured, skipping");
+            return 0;
+        }
+        return archive(configuredCondition);
+    }
+
+    /**
+     * @param condition member, team(left join) 에 대한 보관 조건
+     * @return 옮긴 멤버 수
+     */
+    public synchronized int archive(Predicate condition) {
+        return archiveTimer.record(() -> {
+            int archived = 0;
+            Batch batch;
+            do {
+                batch = transactionTemplate.execute(status -> archiveBatch(condition));
+                archived += batch.moved;
+            } while (batch.selected == batchSize && batch.moved > 0);
+
+            log.info("Archived {} members", archived);
+            return archived;
+        });
+    }
+
+    private Batch archiveBatch(Predicate condition) {
+        List<Long> candidates = findArchivable(condition, null);
+        if (candidates.isEmpty()) {
+            return new Batch(0, 0);
+        }
+
+        List<Long> locked = jdbcTemplate.queryForList(LOCK_SQL, new MapSqlParameterSource("ids", candidates), Long.class);
+        List<Long> ids = locked.isEmpty() ? locked : findArchivable(condition, locked);
+        if (ids.isEmpty()) {
+            return new Batch(candidates.size(), 0);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+            .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(COPY_SQL, params);
+        int deleted = jdbcTemplate.update(DELETE_SQL, params);
+
+        changeCollector.record(ids.stream()
+            .map(id -> new EntityChangeEvent(Member.class, id, ChangeType.DELETED))
+            .collect(toList()));
+        archivedCounter.increment(deleted);
+
+        return new Batch(candidates.size(), deleted);
+    }
+
+    /**
+     * @param ids null 이 아니면 해당 id 중에서만 찾는다.
+     */
+    private List<Long> findArchivable(Predicate condition, List<Long> ids) {
+        return jpaQueryFactory
+            .select(member.id)
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(condition, ids != null ? member.id.in(ids) : null)
+            .orderBy(member.id.asc())
+            .limit(batchSize)
+            .fetch();
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Failed to archive members", e);
+        }
+    }
+
+    private static Predicate archiveCondition(boolean withoutTeam, Integer ageGoe, Integer ageLoe) {
+        BooleanBuilder builder = new BooleanBuilder();
+        if (withoutTeam) {
+            builder.and(member.team.isNull());
+        }
+        if (ageGoe != null) {
+            builder.and(member.age.goe(ageGoe));
+        }
+        if (ageLoe != null) {
+            builder.and(member.age.loe(ageLoe));
+        }
+        return builder.hasValue() ? builder.getValue() : null;
+    }
+
+    private static class Batch {
+
+        private final int selected;
+        private final int moved;
+
+        private Batch(int selected, int moved) {
+            this.selected = selected;
+            this.moved = moved;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package me.hjhng125.querydsl.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import me.hjhng125.querydsl.event.EntityChangeEvent;
+import me.hjhng125.querydsl.event.TransactionalEntityChangeListener;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * member, team 의 변경을 검색용 비정규화 테이블(member_search)에 반영한다.
+ * <p/>
+ * 1. 변경 이벤트를 트랜잭션 안에서 받아 바뀐 멤버 id, 팀 id 를 모아 둔다.<br/>
+ * hibernate flush 도중에는 jdbc batch 가 아직 실행되지 않았을 수 있으므로 이때 쿼리하지 않는다.<br/>
+ * 2. 모아 둔 멤버의 row 를 member, team 에서 다시 만들고, 바뀐 팀의 이름을 갱신한다.<br/>
+ * 커밋 시점의 flush 는 스프링의 beforeCommit 콜백 이후(JpaTransactionManager.doCommit)에 실행되므로
+ * 첫 이벤트를 받을 때 hibernate 세션에 BeforeTransactionCompletionProcess 를 등록하여 커밋 flush 가 끝난 뒤 반영한다.<br/>
+ * 3. 같은 트랜잭션에서 검색하는 경우(read your writes)를 위해 MemberSearchViewRepository 는 검색 전에 synchronize()를 호출한다.
+ * <p/>
+ * 엔터티 변경과 같은 트랜잭션에서 반영하므로 커밋된 member, team 과 member_search 는 일치한다.<br/>
+ * 변경 이벤트를 기록하지 않는 변경(이벤트 없는 벌크 쿼리, 직접 실행한 sql)이나 read model 을 끈 채 저장한 데이터는 반영되지 않는다.
+ * 이때는 rebuild()로 다시 만든다. (복구 경로)<br/>
+ * rebuild()는 한 트랜잭션에서 member_search 전체를 지우고 member⋈team 전체를 다시 넣으므로 시작 시간이 길어지고,
+ * init-data.async 의 백그라운드 저장과 동시에 실행되면 그 사이의 변경을 덮어쓸 수 있다.
+ * 따라서 rebuild-on-startup 은 기본값이 false 이며, 위와 같은 변경이 있었던 DB 로 시작할 때만 켠다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.read-model.enabled", havingValue = "true")
+public class MemberSearchProjection implements TransactionalEntityChangeListener {
+
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private static final String SELECT_SQL =
+        "select m.member_id, m.username, m.age, t.team_id, t.name "
+            + "from member m left join team t on t.team_id = m.team_id";
+    private static final String INSERT_SQL =
+        "insert into member_search (member_id, username, age, team_id, team_name) ";
+
+    private static final String DELETE_MEMBERS_SQL = "delete from member_search where member_id in (:ids)";
+    private static final String INSERT_MEMBERS_SQL = INSERT_SQL + SELECT_SQL + " where m.member_id in (:ids)";
+    private static final String UPDATE_TEAMS_SQL =
+        "update member_search set team_name = (select t.name from team t where t.team_id = member_search.team_id) "
+            + "where team_id in (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public MemberSearchProjection(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+        @Value("${member.read-model.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * member_search 를 member, team 에서 다시 만든다.<br/>
+     * 변경 이벤트 없이 바뀐 데이터를 반영하는 복구 경로이며, member_search 의 모든 row 를 지우고 다시 넣으므로 트래픽이 적을 때 실행한다.
+     *
+     * @return member_search 의 row 수
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.getJdbcOperations().update("delete from member_search");
+            return jdbcTemplate.getJdbcOperations().update(INSERT_SQL + SELECT_SQL);
+        });
+        log.info("Rebuilt member_search with {} rows", rows);
+        return rows;
+    }
+
+    @Override
+    public void onRecorded(Collection<EntityChangeEvent> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+            || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            PendingChanges changes = new PendingChanges();
+            changes.addAll(events);
+            transactionTemplate.executeWithoutResult(status -> apply(changes));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new UnbindAfterCompletion());
+
+            // 커밋 flush 이후에 실행된다. 이미 flush 되었으므로 다시 flush 하지 않는다.
+            PendingChanges registered = pending;
+            entityManager.unwrap(SessionImplementor.class)
+                .getActionQueue()
+                .registerProcess(session -> applyPending(registered));
+        }
+        pending.addAll(events);
+    }
+
+    /**
+     * 현재 트랜잭션에서 아직 반영하지 않은 변경을 member_search 에 반영한다.<br/>
+     * 영속성 컨텍스트를 먼저 flush 하여 flush 되지 않은 엔터티의 변경도 반영한다.
+     */
+    public void synchronize() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+
+        entityManager.flush();
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            applyPending(pending);
+        }
+    }
+
+    private void applyPending(PendingChanges pending) {
+        if (!pending.isEmpty()) {
+            apply(pending.drain());
+        }
+    }
+
+    private void apply(PendingChanges changes) {
+        for (List<Long> ids : chunk(changes.memberIds)) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+            jdbcTemplate.update(DELETE_MEMBERS_SQL, params);
+            jdbcTemplate.update(INSERT_MEMBERS_SQL, params);
+        }
+        for (List<Long> ids : chunk(changes.teamIds)) {
+            jdbcTemplate.update(UPDATE_TEAMS_SQL, new MapSqlParameterSource("ids", ids));
+        }
+    }
+
+    private List<List<Long>> chunk(Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CLAUSE_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + IN_CLAUSE_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private class UnbindAfterCompletion implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemberSearchProjection.this);
+        }
+    }
+
+    /**
+     * 반영을 기다리는 멤버 id, 팀 id.
+     */
+    private static class PendingChanges {
+
+        private Set<Long> memberIds = new LinkedHashSet<>();
+        private Set<Long> teamIds = new LinkedHashSet<>();
+
+        private void addAll(Collection<EntityChangeEvent> events) {
+            for (EntityChangeEvent event : events) {
+                if (event.getEntityType() == Member.class) {
+                    memberIds.add((Long) event.getId());
+                } else if (event.getEntityType() == Team.class) {
+                    teamIds.add((Long) event.getId());
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return memberIds.isEmpty() && teamIds.isEmpty();
+        }
+
+        private PendingChanges drain() {
+            PendingChanges drained = new PendingChanges();
+            drained.memberIds = memberIds;
+            drained.teamIds = teamIds;
+            memberIds = new LinkedHashSet<>();
+            teamIds = new LinkedHashSet<>();
+            return drained;
+        }
+    }
+}
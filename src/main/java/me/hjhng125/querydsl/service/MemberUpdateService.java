@@ -0,0 +1,53 @@
+package me.hjhng125.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import me.hjhng125.querydsl.repository.MemberRepository;
+import me.hjhng125.querydsl.repository.TeamRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * 동시에 수정될 수 있는 멤버의 팀, 나이 변경<br/>
+ * select ... for update 로 row 를 잠그는 대신 version 으로 충돌을 감지하고 충돌하면 다시 시도한다.
+ * <p/>
+ * 트랜잭션은 OptimisticRetryExecutor 가 시도마다 새로 연다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+
+    /**
+     * Member.changeTeam() 은 팀의 members 컬렉션을 초기화하므로 관계의 주인인 member.team 만 바꾼다.<br/>
+     * 프록시(getById)는 팀이 있는지 확인하지 않아 커밋 시점에 외래 키 오류가 나므로, 팀을 조회하여 없으면 바로 실패한다.
+     */
+    public Member changeTeam(Long memberId, Long teamId) {
+        return retryExecutor.execute("member.changeTeam", () -> {
+            Member member = findMember(memberId);
+            member.setTeam(findTeam(teamId));
+            return member;
+        });
+    }
+
+    public Member changeAge(Long memberId, int age) {
+        return retryExecutor.execute("member.changeAge", () -> {
+            Member member = findMember(memberId);
+            member.setAge(age);
+            return member;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+            .orElseThrow(() -> new IllegalArgumentException("Member not found: " + memberId));
+    }
+
+    private Team findTeam(Long teamId) {
+        return teamRepository.findById(teamId)
+            .orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
+    }
+}
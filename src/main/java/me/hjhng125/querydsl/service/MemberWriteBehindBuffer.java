@@ -0,0 +1,324 @@
+package me.hjhng125.querydsl.service;
+
+import static java.util.stream.Collectors.toList;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.hjhng125.querydsl.event.ChangeType;
+import me.hjhng125.querydsl.event.EntityChangeCollector;
+import me.hjhng125.querydsl.event.EntityChangeEvent;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 멤버의 username, age 변경을 메모리에 모아 두었다가 주기적으로 jdbc batch update 로 반영한다. (write-behind)
+ * <p/>
+ * 변경마다 트랜잭션을 열고 엔터티를 조회, dirty checking 하여 한 건씩 update 하면 초당 수천 건의 변경을 감당할 수 없다.<br/>
+ * 1. 같은 멤버에 대한 변경은 하나로 합친다. (필드 별로 마지막 값이 남는다.)<br/>
+ * 2. flush-interval-millis 마다, 또는 대기 중인 멤버가 max-pending 을 넘으면 바로 flush 한다.<br/>
+ * 3. flush 는 하나의 트랜잭션에서 batch-size 개씩 jdbc batch update 를 실행한다.
+ * <p/>
+ * 반영되지 않은 변경은 최대 flush-interval-millis, max-pending 만큼이며 애플리케이션이 비정상 종료되면 유실된다.<br/>
+ * flush 가 실패하면 변경을 버퍼에 되돌려 다음 flush 에서 다시 시도한다. (그 사이 들어온 더 최신 값이 우선한다.)<br/>
+ * 제약 조건 위반(DataIntegrityViolationException)으로 실패하면 batch 를 반으로 나누어 다시 반영하여 실패하는 멤버만 찾아 버린다.
+ * 한 건 때문에 이후의 모든 flush 가 실패하지 않도록 하기 위함이다.<br/>
+ * 데이터베이스 장애 등으로 flush 가 계속 실패하는 동안 버퍼가 끝없이 커지지 않도록 반영 대기, 반영 중인 멤버 수를 max-buffered 로 제한한다.
+ * 가득 차면 새 멤버의 변경은 block-millis 동안 자리가 나기를 기다리고, 그래도 없으면 RejectedExecutionException 으로 거절한다.<br/>
+ * jdbc 로 반영하므로 영속성 컨텍스트에 이미 로드된 엔터티에는 반영되지 않으며, hibernate 이벤트가 없으므로 변경 이벤트를 직접 기록한다.<br/>
+ * 이미 멤버를 조회한 다른 트랜잭션이 낙관적 락으로 충돌을 감지할 수 있도록 version 을 올린다.
+ * <p/>
+ * flush 시간, 크기, 합쳐진 변경 수, 대기 중인 멤버 수, 버린 변경 수, 거절한 변경 수는 member.write-behind.* 메트릭으로 확인할 수 있다.
+ */
+@Slf4j
+@Component
+public class MemberWriteBehindBuffer {
+
+    private static final String UPDATE_SQL =
+        "update member set username = coalesce(?, username), age = coalesce(?, age), version = version + 1 where member_id = ?";
+
+    private final ConcurrentHashMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object capacity = new Object();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityChangeCollector changeCollector;
+    private final long flushIntervalMillis;
+    private final int maxPending;
+    private final int batchSize;
+    private final int maxBuffered;
+    private final long blockMillis;
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter coalescedCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+    private final Counter rejectedCounter;
+
+    public MemberWriteBehindBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+        EntityChangeCollector changeCollector, MeterRegistry meterRegistry,
+        @Value("${member.write-behind.flush-interval-millis:200}") long flushIntervalMillis,
+        @Value("${member.write-behind.max-pending:10000}") int maxPending,
+        @Value("${member.write-behind.batch-size:500}") int batchSize,
+        @Value("${member.write-behind.max-buffered:100000}") int maxBuffered,
+        @Value("${member.write-behind.block-millis:1000}") long blockMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeCollector = changeCollector;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxBuffered = maxBuffered;
+        this.blockMillis = blockMillis;
+
+        this.flushTimer = Timer.builder("member.write-behind.flush")
+            .description("버퍼에 모인 변경을 반영하는 데 걸린 시간")
+            .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("member.write-behind.flush.size")
+            .description("한 번의 flush 로 반영한 멤버 수")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("member.write-behind.coalesced")
+            .description("이미 대기 중인 변경과 합쳐진 변경 수")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("member.write-behind.flush.failed")
+            .description("실패한 flush 수")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("member.write-behind.dropped")
+            .description("제약 조건 위반으로 반영하지 못하고 버린 멤버 수")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("member.write-behind.rejected")
+            .description("버퍼가 가득 차서 거절한 변경 수")
+            .register(meterRegistry);
+        Gauge.builder("member.write-behind.pending", pending, Map::size)
+            .description("반영을 기다리는 멤버 수")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 종료 시 남아 있는 변경을 반영한다.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    public void updateUsername(Long memberId, String username) {
+        enqueue(memberId, new PendingUpdate(username, null));
+    }
+
+    public void updateAge(Long memberId, int age) {
+        enqueue(memberId, new PendingUpdate(null, age));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 대기 중인 변경을 지금 반영한다.
+     *
+     * @return 반영한 멤버 수
+     */
+    public synchronized int flush() {
+        List<Long> memberIds = new ArrayList<>(pending.keySet());
+        if (memberIds.isEmpty()) {
+            return 0;
+        }
+
+        // 키 단위로 꺼내므로 꺼낸 이후의 변경은 다음 flush 에 반영된다.
+        // 반영이 끝날 때까지 꺼낸 멤버도 max-buffered 에 포함한다.
+        List<Map.Entry<Long, PendingUpdate>> updates = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            inFlight.incrementAndGet();
+            PendingUpdate update = pending.remove(memberId);
+            if (update != null) {
+                updates.add(Map.entry(memberId, update));
+            } else {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        Set<Long> completed = new HashSet<>();
+        try {
+            flushTimer.record(() -> writeIsolatingFailures(updates, completed));
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            updates.stream()
+                .filter(entry -> !completed.contains(entry.getKey()))
+                .forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), (newer, older) -> older.mergeWith(newer)));
+            throw e;
+        } finally {
+            inFlight.addAndGet(-updates.size());
+            synchronized (capacity) {
+                capacity.notifyAll();
+            }
+        }
+
+        flushSize.record(updates.size());
+        return updates.size();
+    }
+
+    /**
+     * 제약 조건 위반으로 실패하면 반으로 나누어 다시 반영하고, 한 건만 남으면 버린다.<br/>
+     * 반영했거나 버린 멤버는 completed 에 담는다. 그 외의 예외는 나머지 멤버를 반영하지 않고 던진다.
+     */
+    private void writeIsolatingFailures(List<Map.Entry<Long, PendingUpdate>> updates, Set<Long> completed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(updates));
+        } catch (DataIntegrityViolationException e) {
+            if (updates.size() == 1) {
+                droppedCounter.increment();
+                log.error("Dropped update of member {} that cannot be written", updates.get(0).getKey(), e);
+            } else {
+                int half = updates.size() / 2;
+                writeIsolatingFailures(updates.subList(0, half), completed);
+                writeIsolatingFailures(updates.subList(half, updates.size()), completed);
+                return;
+            }
+        }
+        updates.forEach(entry -> completed.add(entry.getKey()));
+    }
+
+    private void write(List<Map.Entry<Long, PendingUpdate>> updates) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, entry) -> {
+            PendingUpdate update = entry.getValue();
+            if (update.username != null) {
+                ps.setString(1, update.username);
+            } else {
+                ps.setNull(1, Types.VARCHAR);
+            }
+            if (update.age != null) {
+                ps.setInt(2, update.age);
+            } else {
+                ps.setNull(2, Types.INTEGER);
+            }
+            ps.setLong(3, entry.getKey());
+        });
+
+        changeCollector.record(updates.stream()
+            .map(entry -> new EntityChangeEvent(Member.class, entry.getKey(), ChangeType.UPDATED))
+            .collect(toList()));
+    }
+
+    private void enqueue(Long memberId, PendingUpdate update) {
+        if (!pending.containsKey(memberId)) {
+            awaitCapacity();
+        }
+
+        pending.merge(memberId, update, (older, newer) -> {
+            coalescedCounter.increment();
+            return older.mergeWith(newer);
+        });
+
+        if (pending.size() >= maxPending) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * 이미 대기 중인 멤버의 변경은 합쳐지므로 버퍼를 늘리지 않는다. 새 멤버의 변경만 자리를 기다린다.
+     */
+    private void awaitCapacity() {
+        if (buffered() < maxBuffered) {
+            return;
+        }
+
+        requestFlush();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        synchronized (capacity) {
+            while (buffered() >= maxBuffered) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    rejectedCounter.increment();
+                    throw new RejectedExecutionException("Member write-behind buffer is full: " + buffered() + " members");
+                }
+                try {
+                    capacity.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectedCounter.increment();
+                    throw new RejectedExecutionException("Interrupted while waiting for member write-behind buffer", e);
+                }
+            }
+        }
+    }
+
+    private int buffered() {
+        return pending.size() + inFlight.get();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush member updates, {} members will be retried", pending.size(), e);
+        }
+    }
+
+    /**
+     * null 인 필드는 변경하지 않는다.
+     */
+    private static class PendingUpdate {
+
+        private final String username;
+        private final Integer age;
+
+        private PendingUpdate(String username, Integer age) {
+            this.username = username;
+            this.age = age;
+        }
+
+        private PendingUpdate mergeWith(PendingUpdate newer) {
+            return new PendingUpdate(
+                newer.username != null ? newer.username : username,
+                newer.age != null ? newer.age : age);
+        }
+    }
+}
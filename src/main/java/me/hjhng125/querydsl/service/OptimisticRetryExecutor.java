@@ -0,0 +1,86 @@
+package me.hjhng125.querydsl.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 낙관적 락 충돌(OptimisticLockingFailureException)이 발생하면 새 트랜잭션에서 다시 실행한다.
+ * <p/>
+ * 충돌은 커밋(flush) 시점에 발생하므로 조회부터 수정까지 전체를 다시 실행해야 최신 version 으로 수정할 수 있다.<br/>
+ * 1. 최대 max-attempts 번 실행한다.<br/>
+ * 2. 재시도 전 backoff-millis * 2^(n-1) (최대 max-backoff-millis) 범위 안의 임의의 시간만큼 기다린다. (full jitter)<br/>
+ * 동시에 충돌한 트랜잭션들이 같은 시점에 다시 충돌하지 않게 한다.
+ * <p/>
+ * 이미 트랜잭션 안에서 호출되면 재시도해도 같은 영속성 컨텍스트를 다시 사용하게 되므로 재시도하지 않는다.<br/>
+ * 충돌, 재시도 소진 횟수는 optimistic.lock.conflicts 메트릭으로 확인할 수 있다.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+        @Value("${optimistic-lock.retry.max-attempts:5}") int maxAttempts,
+        @Value("${optimistic-lock.retry.backoff-millis:10}") long backoffMillis,
+        @Value("${optimistic-lock.retry.max-backoff-millis:200}") long maxBackoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; ++attempt) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    conflicts(operation, "exhausted").increment();
+                    throw e;
+                }
+                conflicts(operation, "retried").increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private Counter conflicts(String operation, String outcome) {
+        return Counter.builder("optimistic.lock.conflicts")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .description("낙관적 락 충돌 수")
+            .register(meterRegistry);
+    }
+
+    private void backoff(int attempt) {
+        long bound = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 30));
+        if (bound <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package me.hjhng125.querydsl.sharding;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import me.hjhng125.querydsl.repository.MemberRepositoryCustom;
+import me.hjhng125.querydsl.repository.MemberRepositoryCustomImpl;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 하나의 샤드 데이터베이스<br/>
+ * 샤드마다 EntityManagerFactory, 트랜잭션 매니저를 따로 가지며 기존 MemberRepositoryCustomImpl 을 그대로 사용한다.
+ */
+public class Shard implements AutoCloseable {
+
+    private final int index;
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final JPAQueryFactory jpaQueryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final MemberRepositoryCustomImpl memberRepository;
+
+    Shard(int index, HikariDataSource dataSource, EntityManagerFactory entityManagerFactory,
+        long exactThreshold, long statisticsTtlMillis) {
+        this.index = index;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        this.memberRepository = new MemberRepositoryCustomImpl(jpaQueryFactory, exactThreshold, statisticsTtlMillis);
+        this.memberRepository.setEntityManager(entityManager);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    public JPAQueryFactory getJpaQueryFactory() {
+        return jpaQueryFactory;
+    }
+
+    public MemberRepositoryCustom getMemberRepository() {
+        return memberRepository;
+    }
+
+    /**
+     * 이 샤드의 트랜잭션 안에서 실행한다. 쓰기는 이 메소드를 통해야 한다.
+     */
+    public <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    /**
+     * 카운트 쿼리와 컨텐츠 쿼리가 같은 커넥션, 영속성 컨텍스트를 사용하도록 읽기 전용 트랜잭션 안에서 실행한다.
+     */
+    public <T> T read(Supplier<T> action) {
+        return readOnlyTransactionTemplate.execute(status -> action.get());
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,265 @@
+package me.hjhng125.querydsl.sharding;
+
+import static java.util.stream.Collectors.toList;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.repository.ApproximateCountPage;
+import me.hjhng125.querydsl.repository.MemberRepositoryCustom;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * 팀 id로 샤딩된 멤버를 검색한다.
+ * <p/>
+ * 1. teamName 조건이 있으면 해당 이름의 팀이 있는 샤드에만 쿼리한다.<br/>
+ * 팀 이름 -> 샤드 목록은 team-directory-ttl-millis 동안 캐시하므로 새로 만든 팀은 그 이후에 검색될 수 있다.<br/>
+ * 팀 이름은 요청으로 들어오는 값이므로 캐시는 team-directory-max-size 개로 제한하고(LRU), 어느 샤드에도 없는 팀은 캐시하지 않는다.<br/>
+ * 2. 그 외에는 모든 샤드에 병렬로 쿼리하고(scatter) 결과를 합친다.(gather)
+ * <p/>
+ * 페이징은 각 샤드에서 0 ~ offset + size 까지 조회한 뒤 합쳐서 offset 부터 size 만큼 자른다.<br/>
+ * 전체 카운트는 각 샤드의 카운트를 더한다.<br/>
+ * 정렬(Sort)을 적용하는 searchPageSimpleV2()는 합친 결과를 같은 기준으로 다시 정렬하고, 나머지는 샤드 순서대로 이어 붙인다.<br/>
+ * offset 이 클수록 각 샤드에서 조회하는 row 가 늘어나므로 깊은 페이지는 searchSlice() 나 커서 방식이 적합하다.
+ */
+public class ShardedMemberRepository implements MemberRepositoryCustom {
+
+    private final Shards shards;
+    private final long teamDirectoryTtlMillis;
+    private final Map<String, TeamShards> teamDirectory;
+
+    public ShardedMemberRepository(Shards shards, long teamDirectoryTtlMillis, int teamDirectoryMaxSize) {
+        this.shards = shards;
+        this.teamDirectoryTtlMillis = teamDirectoryTtlMillis;
+        this.teamDirectory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TeamShards> eldest) {
+                return size() > teamDirectoryMaxSize || eldest.getValue().isExpired(teamDirectoryTtlMillis);
+            }
+        });
+    }
+
+    @Override
+    public List<MemberTeamDTO> search(MemberSearchCondition condition) {
+        return concat(shards.scatter(targetShards(condition), shard -> shard.getMemberRepository().search(condition)));
+    }
+
+    /**
+     * 조건 별로 샤드를 고르지 않고 모든 샤드에서 searchAll()을 한 번씩 실행한 뒤 조건 별로 합친다.
+     */
+    @Override
+    public List<List<MemberTeamDTO>> searchAll(List<MemberSearchCondition> conditions) {
+        List<List<List<MemberTeamDTO>>> results = shards.scatter(shards.all(),
+            shard -> shard.getMemberRepository().searchAll(conditions));
+
+        List<List<MemberTeamDTO>> merged = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); ++i) {
+            int index = i;
+            merged.add(concat(results.stream()
+                .map(result -> result.get(index))
+                .collect(toList())));
+        }
+        return merged;
+    }
+
+    @Override
+    public Page<MemberTeamDTO> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        return gatherPage(condition, pageable, Sort.unsorted(), MemberRepositoryCustom::searchPageSimple);
+    }
+
+    @Override
+    public Page<MemberTeamDTO> searchPageSimpleV2(MemberSearchCondition condition, Pageable pageable) {
+        return gatherPage(condition, pageable, pageable.getSort(), MemberRepositoryCustom::searchPageSimpleV2);
+    }
+
+    @Override
+    public Page<MemberTeamDTO> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        return gatherPage(condition, pageable, Sort.unsorted(), MemberRepositoryCustom::searchPageComplex);
+    }
+
+    @Override
+    public Page<MemberTeamDTO> searchPageNoCountQuery(MemberSearchCondition condition, Pageable pageable) {
+        return gatherPage(condition, pageable, Sort.unsorted(), MemberRepositoryCustom::searchPageNoCountQuery);
+    }
+
+    /**
+     * 모든 샤드의 카운트가 정확한 값일 때만 정확한 카운트이다.
+     */
+    @Override
+    public ApproximateCountPage<MemberTeamDTO> searchPageApproximateCount(MemberSearchCondition condition, Pageable pageable) {
+        List<ApproximateCountPage<MemberTeamDTO>> pages = scatterPages(condition, pageable,
+            MemberRepositoryCustom::searchPageApproximateCount);
+
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        boolean exactTotal = pages.stream().allMatch(ApproximateCountPage::isExactTotal);
+
+        return new ApproximateCountPage<>(pageOf(pages, pageable, Sort.unsorted()), pageable, total, exactTotal);
+    }
+
+    @Override
+    public Slice<MemberTeamDTO> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        List<Slice<MemberTeamDTO>> slices = scatterPages(condition, pageable, MemberRepositoryCustom::searchSlice);
+
+        List<MemberTeamDTO> merged = merge(slices, Sort.unsorted());
+        long end = pageable.getOffset() + pageable.getPageSize();
+        boolean hasNext = merged.size() > end || slices.stream().anyMatch(Slice::hasNext);
+
+        return new SliceImpl<>(slice(merged, pageable), pageable, hasNext);
+    }
+
+    private Page<MemberTeamDTO> gatherPage(MemberSearchCondition condition, Pageable pageable, Sort mergeSort,
+        PageSearch<Page<MemberTeamDTO>> search) {
+
+        List<Page<MemberTeamDTO>> pages = scatterPages(condition, pageable, search);
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+
+        return new PageImpl<>(pageOf(pages, pageable, mergeSort), pageable, total);
+    }
+
+    /**
+     * 각 샤드에서 첫 페이지부터 요청한 페이지의 끝까지(offset + size) 조회한다.
+     */
+    private <S extends Slice<MemberTeamDTO>> List<S> scatterPages(MemberSearchCondition condition, Pageable pageable,
+        PageSearch<S> search) {
+
+        Pageable shardPageable = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), pageable.getSort());
+
+        return shards.scatter(targetShards(condition), shard -> search.search(shard.getMemberRepository(), condition, shardPageable));
+    }
+
+    private List<MemberTeamDTO> pageOf(List<? extends Slice<MemberTeamDTO>> pages, Pageable pageable, Sort mergeSort) {
+        return slice(merge(pages, mergeSort), pageable);
+    }
+
+    private List<MemberTeamDTO> merge(List<? extends Slice<MemberTeamDTO>> pages, Sort sort) {
+        List<MemberTeamDTO> merged = concat(pages.stream()
+            .map(Slice::getContent)
+            .collect(toList()));
+
+        if (sort.isSorted()) {
+            merged.sort(comparator(sort));
+        }
+        return merged;
+    }
+
+    private List<MemberTeamDTO> slice(List<MemberTeamDTO> merged, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    private List<MemberTeamDTO> concat(List<List<MemberTeamDTO>> results) {
+        List<MemberTeamDTO> merged = new ArrayList<>();
+        results.forEach(merged::addAll);
+        return merged;
+    }
+
+    /**
+     * searchPageSimpleV2()는 Member 엔터티의 프로퍼티로 정렬하므로 같은 이름을 DTO 필드에 대응시킨다.
+     */
+    private Comparator<MemberTeamDTO> comparator(Sort sort) {
+        Comparator<MemberTeamDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDTO> next = propertyComparator(order.getProperty());
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private Comparator<MemberTeamDTO> propertyComparator(String property) {
+        switch (property) {
+            case "id":
+            case "memberId":
+                return Comparator.comparing(MemberTeamDTO::getMemberId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "username":
+                return Comparator.comparing(MemberTeamDTO::getUsername, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "age":
+                return Comparator.comparingInt(MemberTeamDTO::getAge);
+            case "team.id":
+            case "teamId":
+                return Comparator.comparing(MemberTeamDTO::getTeamId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "team.name":
+            case "teamName":
+                return Comparator.comparing(MemberTeamDTO::getTeamName, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+    }
+
+    private List<Shard> targetShards(MemberSearchCondition condition) {
+        if (!hasText(condition.getTeamName())) {
+            return shards.all();
+        }
+
+        TeamShards cached = teamDirectory.get(condition.getTeamName());
+        if (cached != null && !cached.isExpired(teamDirectoryTtlMillis)) {
+            return cached.shards;
+        }
+
+        List<Shard> teamShards = findTeamShards(condition.getTeamName());
+        if (teamShards.isEmpty()) {
+            teamDirectory.remove(condition.getTeamName());
+        } else {
+            teamDirectory.put(condition.getTeamName(), new TeamShards(teamShards, System.currentTimeMillis()));
+        }
+        return teamShards;
+    }
+
+    /**
+     * 같은 이름의 팀이 여러 샤드에 있을 수 있으므로 모든 샤드에서 찾는다.
+     */
+    private List<Shard> findTeamShards(String teamName) {
+        List<Boolean> exists = shards.scatter(shards.all(), shard -> shard.getJpaQueryFactory()
+            .selectOne()
+            .from(team)
+            .where(team.name.eq(teamName))
+            .fetchFirst() != null);
+
+        List<Shard> result = new ArrayList<>();
+        for (int i = 0; i < exists.size(); ++i) {
+            if (exists.get(i)) {
+                result.add(shards.get(i));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * MemberRepositoryCustom 의 페이징 검색 메소드 (ex. MemberRepositoryCustom::searchPageSimple)
+     */
+    private interface PageSearch<S> {
+
+        S search(MemberRepositoryCustom repository, MemberSearchCondition condition, Pageable pageable);
+    }
+
+    private static class TeamShards {
+
+        private final List<Shard> shards;
+        private final long resolvedAt;
+
+        private TeamShards(List<Shard> shards, long resolvedAt) {
+            this.shards = shards;
+            this.resolvedAt = resolvedAt;
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - resolvedAt > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package me.hjhng125.querydsl.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManagerFactory;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.sharding.ShardingProperties.ShardDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+/**
+ * sharding.enabled=true 이면 sharding.shards 의 데이터베이스마다 DataSource, EntityManagerFactory 를 만든다.
+ * <p/>
+ * 기본 DataSource, EntityManagerFactory(spring data 리포지토리)는 그대로 두고 샤드는 ShardedMemberRepository 로만 사용한다.<br/>
+ * 샤드의 EntityManagerFactory 는 spring.jpa.* 설정(ddl-auto, naming 등)을 그대로 사용한다.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final String SEQUENCE = "hibernate_sequence";
+
+    @Bean(destroyMethod = "close")
+    public Shards shards(ShardingProperties properties, EntityManagerFactoryBuilder builder,
+        JpaProperties jpaProperties, HibernateProperties hibernateProperties,
+        @Value("${member.count.exact-threshold:10000}") long exactThreshold,
+        @Value("${member.count.statistics-ttl-millis:60000}") long statisticsTtlMillis) {
+
+        Map<String, Object> vendorProperties = hibernateProperties.determineHibernateProperties(
+            jpaProperties.getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+        // 샤드 별로 시퀀스 증가 값을 샤드 수로 바꾸므로 매핑(allocationSize = 1)과 달라도 그대로 사용한다.
+        vendorProperties.put(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "none");
+
+        List<ShardDataSource> dataSources = properties.getShards();
+        List<Shard> shards = new ArrayList<>(dataSources.size());
+        for (int index = 0; index < dataSources.size(); ++index) {
+            HikariDataSource dataSource = createDataSource(index, dataSources.get(index));
+            EntityManagerFactory entityManagerFactory = createEntityManagerFactory(index, dataSource, builder, vendorProperties);
+
+            if (isSchemaCreated(vendorProperties)) {
+                interleaveSequence(dataSource, index, dataSources.size());
+            }
+
+            shards.add(new Shard(index, dataSource, entityManagerFactory, exactThreshold, statisticsTtlMillis));
+        }
+
+        return new Shards(shards, createExecutor(properties.getParallelism()));
+    }
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(Shards shards, ShardingProperties properties) {
+        return new ShardedMemberRepository(shards, properties.getTeamDirectoryTtlMillis(),
+            properties.getTeamDirectoryMaxSize());
+    }
+
+    private HikariDataSource createDataSource(int index, ShardDataSource properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.getUrl())
+            .username(properties.getUsername())
+            .password(properties.getPassword())
+            .build();
+        dataSource.setPoolName("shard-" + index);
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private EntityManagerFactory createEntityManagerFactory(int index, HikariDataSource dataSource,
+        EntityManagerFactoryBuilder builder, Map<String, Object> vendorProperties) {
+
+        LocalContainerEntityManagerFactoryBean factoryBean = builder
+            .dataSource(dataSource)
+            .packages(Member.class)
+            .persistenceUnit("shard-" + index)
+            .properties(vendorProperties)
+            .build();
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+
+    private boolean isSchemaCreated(Map<String, Object> vendorProperties) {
+        Object ddlAuto = vendorProperties.get(AvailableSettings.HBM2DDL_AUTO);
+        return "create".equals(ddlAuto) || "create-drop".equals(ddlAuto);
+    }
+
+    /**
+     * i 번 샤드는 i + 1, i + 1 + n, i + 1 + 2n ... 의 id를 발급한다.
+     */
+    private void interleaveSequence(HikariDataSource dataSource, int index, int shardCount) {
+        new JdbcTemplate(dataSource).execute(
+            "alter sequence " + SEQUENCE + " restart with " + (index + 1) + " increment by " + shardCount);
+    }
+
+    private ExecutorService createExecutor(int parallelism) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package me.hjhng125.querydsl.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * sharding.enabled 가 true 이면 shards 에 나열한 데이터베이스마다 EntityManagerFactory 를 만든다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    private List<ShardDataSource> shards = new ArrayList<>();
+
+    /**
+     * scatter-gather 에 사용하는 스레드 수
+     */
+    private int parallelism = 16;
+
+    /**
+     * 팀 이름 -> 샤드 목록 캐시 유지 시간
+     */
+    private long teamDirectoryTtlMillis = 60_000;
+
+    /**
+     * 팀 이름 -> 샤드 목록 캐시 크기 (LRU)
+     */
+    private int teamDirectoryMaxSize = 10_000;
+
+    @Getter
+    @Setter
+    public static class ShardDataSource {
+
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,82 @@
+package me.hjhng125.querydsl.sharding;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import org.springframework.util.Assert;
+
+/**
+ * 샤드 목록과 샤드 라우팅
+ * <p/>
+ * 샤드 키는 팀 id 이다. 멤버는 소속 팀의 샤드에 저장하고, 팀이 없는 멤버는 0번 샤드에 저장한다.<br/>
+ * i 번 샤드의 hibernate_sequence 는 i + 1 부터 샤드 수 만큼 증가하므로(ShardingConfig) 모든 샤드에서 id가 겹치지 않고
+ * id 만으로 저장된 샤드를 알 수 있다. (shardOf(id) = (id - 1) % 샤드 수)
+ */
+public class Shards implements AutoCloseable {
+
+    private final List<Shard> shards;
+    private final ExecutorService executor;
+
+    Shards(List<Shard> shards, ExecutorService executor) {
+        Assert.notEmpty(shards, "Shards must not be empty!");
+        this.shards = shards;
+        this.executor = executor;
+    }
+
+    public List<Shard> all() {
+        return shards;
+    }
+
+    public Shard get(int index) {
+        return shards.get(index);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * @param id 팀 또는 멤버의 id
+     */
+    public Shard shardOf(long id) {
+        Assert.isTrue(id > 0, "Id must be positive!");
+        return shards.get((int) ((id - 1) % shards.size()));
+    }
+
+    /**
+     * 각 샤드에서 읽기 전용 트랜잭션으로 병렬 실행하고 샤드 순서대로 결과를 반환한다.<br/>
+     * 샤드가 하나면 호출한 스레드에서 실행한다.
+     */
+    public <T> List<T> scatter(List<Shard> targets, Function<Shard, T> action) {
+        if (targets.size() == 1) {
+            Shard shard = targets.get(0);
+            return List.of(shard.read(() -> action.apply(shard)));
+        }
+
+        List<CompletableFuture<T>> futures = targets.stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> shard.read(() -> action.apply(shard)), executor))
+            .collect(toList());
+
+        try {
+            return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(toList());
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        shards.forEach(Shard::close);
+    }
+}
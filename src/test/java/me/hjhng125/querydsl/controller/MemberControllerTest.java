@@ -1,14 +1,34 @@
 package me.hjhng125.querydsl.controller;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import me.hjhng125.querydsl.event.EntityVersions;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.monitoring.ConnectionPoolGuard;
 import me.hjhng125.querydsl.repository.MemberJpaRepository;
 import me.hjhng125.querydsl.repository.MemberRepository;
+import me.hjhng125.querydsl.repository.MemberTeamCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(MemberController.class)
@@ -21,6 +41,12 @@ class MemberControllerTest {
     MemberJpaRepository memberJpaRepository;
     @MockBean
     MemberRepository memberRepository;
+    @MockBean
+    ConnectionPoolGuard connectionPoolGuard;
+    @MockBean
+    EntityVersions entityVersions;
+    @MockBean
+    MemberTeamCache memberTeamCache;
 
     @Test
     void searchMemberV5() throws Exception {
@@ -29,4 +55,91 @@ class MemberControllerTest {
             .andDo(print());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void rejectTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 1001)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/v7/members")
+            .queryParam("ids", ids))
+            .andExpect(status().isBadRequest());
+
+        verify(memberJpaRepository, never()).findAllByIds(any());
+    }
+
+    @Test
+    void rejectIncludeArchivedOnPagedSearch() throws Exception {
+        mockMvc.perform(get("/v2/members")
+            .queryParam("includeArchived", "true"))
+            .andExpect(status().isBadRequest());
+
+        verify(memberRepository, never()).searchPageSimple(any(), any());
+    }
+
+    @Test
+    void rejectWhenConnectionPoolOverloaded() throws Exception {
+        given(connectionPoolGuard.isOverloaded()).willReturn(true);
+
+        mockMvc.perform(get("/v2/members"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"));
+
+        verify(memberRepository, never()).searchPageSimple(any(), any());
+        verify(connectionPoolGuard).recordRejected();
+    }
+
+    @Test
+    void searchWithoutCountWhenConnectionPoolDegraded() throws Exception {
+        given(connectionPoolGuard.isDegraded()).willReturn(true);
+        given(memberRepository.searchSlice(any(MemberSearchCondition.class), any(Pageable.class)))
+            .willReturn(new SliceImpl<>(
+                Collections.singletonList(new MemberTeamDTO(1L, "member1", 10, 1L, "teamA")),
+                PageRequest.of(0, 1),
+                true));
+
+        mockMvc.perform(get("/v3/members")
+            .queryParam("size", "1"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.exactTotal").value(false))
+            .andExpect(jsonPath("$.totalElements").value(2));
+
+        verify(memberRepository, never()).searchPageComplex(any(), any());
+        verify(connectionPoolGuard).recordDegraded();
+    }
+
+    @Test
+    void notModifiedWhenVersionUnchanged() throws Exception {
+        String etag = mockMvc.perform(get("/v2/members")
+            .queryParam("teamName", "teamA"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v2/members")
+            .queryParam("teamName", "teamA")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        verify(memberRepository, times(1)).searchPageSimple(any(), any());
+        verify(connectionPoolGuard, never()).recordDegraded();
+    }
+
+    @Test
+    void decideDegradedOncePerRequest() throws Exception {
+        given(connectionPoolGuard.isDegraded()).willReturn(false, true);
+
+        mockMvc.perform(get("/v2/members"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG));
+
+        verify(connectionPoolGuard, times(1)).isDegraded();
+        verify(memberRepository, times(1)).searchPageSimple(any(), any());
+        verify(memberRepository, never()).searchSlice(any(), any());
+        verify(connectionPoolGuard, never()).recordDegraded();
+    }
+}
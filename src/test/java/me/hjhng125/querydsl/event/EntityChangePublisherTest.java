@@ -0,0 +1,55 @@
+package me.hjhng125.querydsl.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class EntityChangePublisherTest {
+
+    @Test
+    void notifyOverflowWhenBufferIsFull() throws InterruptedException {
+        //given
+        RecordingListener listener = new RecordingListener();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("recordingListener", listener);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EntityChangePublisher publisher = new EntityChangePublisher(
+            beanFactory.getBeanProvider(EntityChangeListener.class), meterRegistry, 1, 512);
+
+        //when
+        publisher.publish(Arrays.asList(
+            new EntityChangeEvent(Member.class, 1L, ChangeType.UPDATED),
+            new EntityChangeEvent(Member.class, 2L, ChangeType.UPDATED)));
+        publisher.start();
+        publisher.stop();
+
+        //then
+        assertThat(listener.overflows).isEqualTo(1);
+        assertThat(listener.events).containsExactly(new EntityChangeEvent(Member.class, 1L, ChangeType.UPDATED));
+        assertThat(meterRegistry.get("entity.change.events").tag("result", "dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("entity.change.events").tag("result", "published").counter().count()).isEqualTo(1);
+    }
+
+    static class RecordingListener implements EntityChangeListener {
+
+        private final List<EntityChangeEvent> events = new ArrayList<>();
+        private int overflows;
+
+        @Override
+        public void onChanges(List<EntityChangeEvent> events) {
+            this.events.addAll(events);
+        }
+
+        @Override
+        public void onOverflow() {
+            ++overflows;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package me.hjhng125.querydsl.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.Test;
+
+class EntityChangesTest {
+
+    @Test
+    void coalesce() {
+        //given
+        EntityChanges changes = new EntityChanges();
+
+        //when
+        changes.add(new EntityChangeEvent(Member.class, 1L, ChangeType.CREATED));
+        changes.add(new EntityChangeEvent(Member.class, 1L, ChangeType.UPDATED));
+        changes.add(new EntityChangeEvent(Member.class, 2L, ChangeType.UPDATED));
+        changes.add(new EntityChangeEvent(Member.class, 2L, ChangeType.DELETED));
+        changes.add(new EntityChangeEvent(Member.class, 3L, ChangeType.CREATED));
+        changes.add(new EntityChangeEvent(Member.class, 3L, ChangeType.DELETED));
+        changes.add(new EntityChangeEvent(Team.class, 1L, ChangeType.UPDATED));
+        changes.add(new EntityChangeEvent(Team.class, 1L, ChangeType.UPDATED));
+
+        //then
+        assertThat(changes.toList()).containsExactly(
+            new EntityChangeEvent(Member.class, 1L, ChangeType.CREATED),
+            new EntityChangeEvent(Member.class, 2L, ChangeType.DELETED),
+            new EntityChangeEvent(Team.class, 1L, ChangeType.UPDATED)
+        );
+    }
+
+    @Test
+    void recreated() {
+        //given
+        EntityChanges changes = new EntityChanges();
+
+        //when
+        changes.add(new EntityChangeEvent(Member.class, 1L, ChangeType.DELETED));
+        changes.add(new EntityChangeEvent(Member.class, 1L, ChangeType.CREATED));
+
+        //then
+        assertThat(changes.toList()).containsExactly(new EntityChangeEvent(Member.class, 1L, ChangeType.UPDATED));
+    }
+}
@@ -0,0 +1,198 @@
+package me.hjhng125.querydsl.event;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 이벤트는 커밋된 이후에 발행되므로 테스트 트랜잭션에 참여하지 않고 커밋한다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({QuerydslConfig.class, TrackedBulkOperations.class, EntityChangeCollector.class, EntityChangePublisher.class,
+    HibernateEntityChangeListener.class, SimpleMeterRegistry.class, TrackedBulkOperationsTest.QueueListener.class})
+class TrackedBulkOperationsTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    TrackedBulkOperations trackedBulkOperations;
+
+    @Autowired
+    QueueListener listener;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.update("delete from member"));
+        listener.events.clear();
+    }
+
+    @Test
+    void publishAfterCommit() throws InterruptedException {
+        //when
+        List<Long> ids = saveMembers(10);
+
+        //then
+        assertThat(listener.take(1)).containsExactly(new EntityChangeEvent(Member.class, ids.get(0), ChangeType.CREATED));
+    }
+
+    @Test
+    void dropOnRollback() throws InterruptedException {
+        //given
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.persist(new Member("rolledBack", 10));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        //when
+        List<Long> ids = saveMembers(20);
+
+        //then 디스패처는 순서대로 전달하므로 롤백된 이벤트가 있었다면 먼저 도착한다.
+        assertThat(listener.take(1)).containsExactly(new EntityChangeEvent(Member.class, ids.get(0), ChangeType.CREATED));
+        assertThat(listener.events).isEmpty();
+    }
+
+    @Test
+    void updateBumpsVersionAndPublishesUpdated() throws InterruptedException {
+        //given
+        List<Long> ids = saveMembers(10, 20, 30);
+        listener.take(3);
+
+        //when
+        long affected = trackedBulkOperations.update(member, member.age.goe(20),
+            update -> update.set(member.age, member.age.add(1)));
+
+        //then
+        assertThat(affected).isEqualTo(2);
+        assertThat(listener.take(2)).containsExactly(
+            new EntityChangeEvent(Member.class, ids.get(1), ChangeType.UPDATED),
+            new EntityChangeEvent(Member.class, ids.get(2), ChangeType.UPDATED));
+        assertThat(jdbcTemplate.queryForList("select age from member order by member_id", Integer.class))
+            .containsExactly(10, 21, 31);
+        assertThat(jdbcTemplate.queryForList("select version from member order by member_id", Long.class))
+            .containsExactly(0L, 1L, 1L);
+    }
+
+    /**
+     * id 를 조회한 이후 다른 트랜잭션이 조건에 맞는 row 를 추가해도 bulk update 는 조회한 id 에만 적용된다.
+     */
+    @Test
+    void updateOnlyRowsFoundBeforeBulkUpdate() throws InterruptedException {
+        //given
+        List<Long> ids = saveMembers(20);
+        listener.take(1);
+
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Long> inserted = new ArrayList<>();
+
+        //when setter 는 id 조회 이후, bulk update 실행 전에 호출된다.
+        long affected = trackedBulkOperations.update(member, member.age.goe(20), update -> {
+            inserted.add(requiresNew.execute(status -> {
+                Member concurrent = new Member("concurrent", 40);
+                em.persist(concurrent);
+                return concurrent.getId();
+            }));
+            update.set(member.age, member.age.add(1));
+        });
+
+        //then
+        assertThat(affected).isEqualTo(1);
+        assertThat(listener.take(2)).containsExactly(
+            new EntityChangeEvent(Member.class, inserted.get(0), ChangeType.CREATED),
+            new EntityChangeEvent(Member.class, ids.get(0), ChangeType.UPDATED));
+        assertThat(jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, inserted.get(0)))
+            .isEqualTo(40);
+    }
+
+    @Test
+    void deletePublishesDeleted() throws InterruptedException {
+        //given
+        List<Long> ids = saveMembers(10, 20);
+        listener.take(2);
+
+        //when
+        long affected = trackedBulkOperations.delete(member, member.age.lt(20));
+
+        //then
+        assertThat(affected).isEqualTo(1);
+        assertThat(listener.take(1)).containsExactly(new EntityChangeEvent(Member.class, ids.get(0), ChangeType.DELETED));
+        assertThat(jdbcTemplate.queryForList("select member_id from member", Long.class)).containsExactly(ids.get(1));
+    }
+
+    @Test
+    void skipWhenNothingMatches() {
+        //when
+        long affected = trackedBulkOperations.delete(member, member.age.lt(0));
+
+        //then
+        assertThat(affected).isZero();
+        assertThat(listener.events).isEmpty();
+    }
+
+    private List<Long> saveMembers(int... ages) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int age : ages) {
+                Member saved = new Member("member" + age, age);
+                em.persist(saved);
+                ids.add(saved.getId());
+            }
+            return ids;
+        });
+    }
+
+    static class QueueListener implements EntityChangeListener {
+
+        private final BlockingQueue<EntityChangeEvent> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChanges(List<EntityChangeEvent> events) {
+            this.events.addAll(events);
+        }
+
+        /**
+         * 디스패처 스레드가 전달할 때까지 기다린다.
+         */
+        List<EntityChangeEvent> take(int count) throws InterruptedException {
+            List<EntityChangeEvent> taken = new ArrayList<>();
+            for (int i = 0; i < count; ++i) {
+                EntityChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+                if (event == null) {
+                    break;
+                }
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}
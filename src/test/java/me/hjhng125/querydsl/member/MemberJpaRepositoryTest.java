@@ -4,6 +4,7 @@ import static me.hjhng125.querydsl.model.entity.QMember.member;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.Arrays;
 import java.util.List;
 import javax.persistence.EntityManager;
 import me.hjhng125.querydsl.config.QuerydslConfig;
@@ -147,6 +148,25 @@ class MemberJpaRepositoryTest {
             .containsExactly("member3", "member4");
     }
 
+    @Test
+    void findAllByIds() {
+        //given
+        Member member6 = new Member("member6", 60);
+        Member member7 = new Member("member7", 70);
+        memberJpaRepository.save(member6);
+        memberJpaRepository.save(member7);
+
+        //when
+        List<MemberTeamDTO> result = memberJpaRepository.findAllByIds(
+            Arrays.asList(member7.getId(), -1L, test.getId(), member6.getId()));
+
+        //then
+        assertThat(result).extracting("username")
+            .containsExactly("member7", "member5", "member6");
+        assertThat(result).extracting("teamName")
+            .containsExactly(null, "teamA", null);
+    }
+
     @Test
     void betweenTest() {
         //given
@@ -0,0 +1,62 @@
+package me.hjhng125.querydsl.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(QuerydslConfig.class)
+class HibernateStatisticsEndpointTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    HibernateStatisticsEndpoint endpoint;
+
+    @BeforeEach
+    void beforeEach() {
+        endpoint = new HibernateStatisticsEndpoint(entityManagerFactory);
+        endpoint.clear();
+
+        em.persist(new Member("member1", 10));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statistics() {
+        //given
+        for (int i = 0; i < 2; ++i) {
+            em.createQuery("select m from Member m", Member.class)
+                .getResultList();
+        }
+
+        //when
+        Map<String, Object> statistics = endpoint.statistics();
+
+        //then
+        assertThat(statistics.get("enabled")).isEqualTo(true);
+        assertThat(((Map<String, Long>) statistics.get("entity")).get("load")).isPositive();
+        assertThat(((Map<String, Long>) statistics.get("queryPlanCache")).get("hit")).isPositive(); // 두번째 쿼리는 캐시된 플랜 사용
+        assertThat((List<Map<String, Object>>) statistics.get("queries"))
+            .anySatisfy(query -> {
+                assertThat(query.get("query")).isEqualTo("select m from Member m");
+                assertThat(query.get("executionCount")).isEqualTo(2L);
+            });
+    }
+}
@@ -0,0 +1,86 @@
+package me.hjhng125.querydsl.projection;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import me.hjhng125.querydsl.model.dto.MemberDto;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.SerializationUtils;
+
+class DirectProjectionsTest {
+
+    @Test
+    void bean() {
+        //given
+        DirectBean<MemberDto> projection = DirectProjections.bean(MemberDto.class, member.username, member.age);
+
+        //when
+        MemberDto memberDto = projection.newInstance("member1", 10);
+
+        //then
+        assertThat(memberDto.getUsername()).isEqualTo("member1");
+        assertThat(memberDto.getAge()).isEqualTo(10);
+    }
+
+    @Test
+    void beanWithAliasAndNull() {
+        //given
+        DirectBean<MemberDto> projection = DirectProjections.bean(MemberDto.class, member.username.as("username"), member.age);
+
+        //when
+        MemberDto memberDto = projection.newInstance(null, null);
+
+        //then
+        assertThat(memberDto.getUsername()).isNull();
+        assertThat(memberDto.getAge()).isZero();
+    }
+
+    @Test
+    void constructor() {
+        //given
+        DirectConstructor<UserDto> userProjection = DirectProjections.constructor(UserDto.class, member.username, member.age);
+        DirectConstructor<MemberTeamDTO> memberTeamProjection = DirectProjections.constructor(MemberTeamDTO.class,
+            member.id, member.username, member.age, team.id, team.name);
+
+        //when
+        UserDto userDto = userProjection.newInstance("member1", 10);
+        MemberTeamDTO memberTeamDTO = memberTeamProjection.newInstance(1L, "member1", 10, 2L, "teamA");
+
+        //then
+        assertThat(userDto.getName()).isEqualTo("member1");
+        assertThat(userDto.getAge()).isEqualTo(10);
+        assertThat(memberTeamDTO.getMemberId()).isEqualTo(1L);
+        assertThat(memberTeamDTO.getTeamName()).isEqualTo("teamA");
+    }
+
+    @Test
+    void constructorTypeMismatch() {
+        assertThatThrownBy(() -> DirectProjections.constructor(UserDto.class, member.age, member.username))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serializable() {
+        //given
+        DirectBean<MemberDto> bean = DirectProjections.bean(MemberDto.class, member.username, member.age);
+        DirectConstructor<UserDto> constructor = DirectProjections.constructor(UserDto.class, member.username, member.age);
+
+        //when
+        DirectBean<MemberDto> deserializedBean = deserialize(bean);
+        DirectConstructor<UserDto> deserializedConstructor = deserialize(constructor);
+
+        //then
+        assertThat(deserializedBean).isEqualTo(bean);
+        assertThat(deserializedBean.newInstance("member1", 10).getUsername()).isEqualTo("member1");
+        assertThat(deserializedConstructor.newInstance("member1", 10).getAge()).isEqualTo(10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(T projection) {
+        return (T) SerializationUtils.deserialize(SerializationUtils.serialize(projection));
+    }
+}
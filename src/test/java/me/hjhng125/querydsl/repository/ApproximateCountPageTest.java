@@ -0,0 +1,32 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+class ApproximateCountPageTest {
+
+    @Test
+    void totalFromShortLastPage() {
+        //when
+        List<String> content = List.of("member21", "member22");
+
+        //then
+        assertThat(ApproximateCountPage.totalFromContent(content, PageRequest.of(2, 10))).hasValue(22);
+        assertThat(ApproximateCountPage.totalFromContent(content, PageRequest.of(0, 10))).hasValue(2);
+        assertThat(ApproximateCountPage.totalFromContent(Collections.emptyList(), PageRequest.of(0, 10))).hasValue(0);
+    }
+
+    @Test
+    void noTotalFromFullOrEmptyPage() {
+        //when
+        List<String> content = List.of("member1", "member2");
+
+        //then
+        assertThat(ApproximateCountPage.totalFromContent(content, PageRequest.of(0, 2))).isEmpty();
+        assertThat(ApproximateCountPage.totalFromContent(Collections.emptyList(), PageRequest.of(3, 10))).isEmpty();
+    }
+}
@@ -0,0 +1,112 @@
+package me.hjhng125.querydsl.repository;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(QuerydslConfig.class)
+class CountQueryOptimizerTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    CountQueryOptimizer countQueryOptimizer;
+
+    @BeforeEach
+    void beforeEach() {
+        countQueryOptimizer = new CountQueryOptimizer(em);
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+    }
+
+    @Test
+    void pruneUnreferencedLeftJoin() {
+        //given
+        JPAQuery<Member> contentQuery = queryFactory
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(member.age.goe(20))
+            .orderBy(member.username.desc());
+
+        //when
+        JPAQuery<Long> countQuery = countQueryOptimizer.createCountQuery(contentQuery);
+
+        //then
+        assertThat(countQuery.toString())
+            .contains("count(member1.id)")
+            .doesNotContain("join")
+            .doesNotContain("order by");
+        assertThat(countQuery.fetchOne()).isEqualTo(contentQuery.fetchCount());
+    }
+
+    @Test
+    void keepReferencedLeftJoin() {
+        //given
+        JPAQuery<Member> contentQuery = queryFactory
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(team.name.eq("teamB"));
+
+        //when
+        JPAQuery<Long> countQuery = countQueryOptimizer.createCountQuery(contentQuery);
+
+        //then
+        assertThat(countQuery.toString()).contains("left join member1.team as team");
+        assertThat(countQuery.fetchOne()).isEqualTo(2L);
+    }
+
+    @Test
+    void keepCollectionLeftJoin() {
+        //given
+        JPAQuery<Team> contentQuery = queryFactory
+            .selectFrom(team)
+            .leftJoin(team.members, member);
+
+        //when
+        JPAQuery<Long> countQuery = countQueryOptimizer.createCountQuery(contentQuery);
+
+        //then
+        assertThat(countQuery.toString()).contains("left join team.members as member1");
+        assertThat(countQuery.fetchOne()).isEqualTo(contentQuery.fetchCount());
+    }
+
+    @Test
+    void notOptimizableWithGroupBy() {
+        //given
+        JPAQuery<String> contentQuery = queryFactory
+            .select(team.name)
+            .from(member)
+            .join(member.team, team)
+            .groupBy(team.name);
+
+        //then
+        assertThat(countQueryOptimizer.isOptimizable(contentQuery)).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import(QuerydslConfig.class)
+class MemberCountStatisticsTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 100; ++i) {
+            em.persist(new Member("member" + i, i, i % 4 == 0 ? teamA : teamB));
+        }
+    }
+
+    @Test
+    void approximateTotal() {
+        //given
+        MemberCountStatistics statistics = new MemberCountStatistics(queryFactory, 10, 60_000);
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .teamName("teamB")
+            .ageGoe(50)
+            .build();
+
+        //when, then
+        assertThat(statistics.approximateTotal(condition)).hasValue(38); // 100 * 0.75 * 0.5
+    }
+
+    @Test
+    void exactBelowThreshold() {
+        //given
+        MemberCountStatistics statistics = new MemberCountStatistics(queryFactory, 10, 60_000);
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .ageGoe(95)
+            .build();
+
+        //when, then
+        assertThat(statistics.approximateTotal(condition)).isEmpty();
+    }
+
+    @Test
+    void exactWithUsername() {
+        //given
+        MemberCountStatistics statistics = new MemberCountStatistics(queryFactory, 0, 60_000);
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .username("member1")
+            .build();
+
+        //when, then
+        assertThat(statistics.approximateTotal(condition)).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package me.hjhng125.querydsl.repository;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Predicate;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+class MemberPredicateBindingsTest {
+
+    QuerydslPredicateBuilder builder = new QuerydslPredicateBuilder(new DefaultConversionService(), SimpleEntityPathResolver.INSTANCE);
+
+    @Test
+    void typedOperators() {
+        //given
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("username", "member");
+        params.add("age", "30");
+        params.add("age", "10");
+
+        //when
+        Predicate predicate = predicate(params);
+
+        //then
+        assertThat(predicate).isEqualTo(member.username.startsWith("member").and(member.age.between(10, 30)));
+    }
+
+    @Test
+    void ignoreUnlistedProperties() {
+        //given
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("version", "1");
+        params.add("team.name", "teamA");
+        params.add("team.id", "1");
+
+        //when
+        Predicate predicate = predicate(params);
+
+        //then
+        assertThat(predicate).isEqualTo(member.team.id.in(1L));
+    }
+
+    private Predicate predicate(MultiValueMap<String, String> params) {
+        QuerydslBindings bindings = new QuerydslBindings();
+        MemberPredicateBindings.customize(bindings, member);
+        return builder.getPredicate(ClassTypeInformation.from(Member.class), params, bindings);
+    }
+}
@@ -3,6 +3,7 @@ package me.hjhng125.querydsl.repository;
 import static me.hjhng125.querydsl.model.entity.QMember.member;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import javax.persistence.EntityManager;
@@ -19,6 +20,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 @DataJpaTest
 @Import(QuerydslConfig.class)
@@ -86,6 +89,33 @@ class MemberRepositoryTest {
             .containsExactly("member3", "member4");
     }
 
+    @Test
+    void searchAll() {
+        //given
+        List<MemberSearchCondition> conditions = Arrays.asList(
+            MemberSearchCondition.builder().teamName("teamB").build(),
+            MemberSearchCondition.builder().teamName("teamA").build(),
+            MemberSearchCondition.builder().ageGoe(30).build(),
+            MemberSearchCondition.builder().ageGoe(10).ageLoe(20).build(),
+            MemberSearchCondition.builder().ageGoe(15).ageLoe(35).build(),
+            MemberSearchCondition.builder().username("member4").teamName("teamB").build(),
+            MemberSearchCondition.builder().build()
+        );
+
+        //when
+        List<List<MemberTeamDTO>> result = memberRepository.searchAll(conditions);
+
+        //then
+        assertThat(result).hasSize(7);
+        assertThat(result.get(0)).extracting("username").containsExactly("member3", "member4");
+        assertThat(result.get(1)).extracting("username").containsExactly("member1", "member2");
+        assertThat(result.get(2)).extracting("username").containsExactly("member3", "member4");
+        assertThat(result.get(3)).extracting("username").containsExactly("member1", "member2");
+        assertThat(result.get(4)).extracting("username").containsExactly("member2", "member3");
+        assertThat(result.get(5)).extracting("username").containsExactly("member4");
+        assertThat(result.get(6)).hasSize(4);
+    }
+
     @Test
     void searchPageSimple() {
         //given
@@ -140,6 +170,45 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    void searchPageApproximateCount() {
+        //given
+        MemberSearchCondition memberSearchCondition = MemberSearchCondition.builder()
+            .ageGoe(20)
+            .build();
+
+        //when
+        ApproximateCountPage<MemberTeamDTO> result = memberRepository.searchPageApproximateCount(memberSearchCondition, PageRequest.of(0, 2));
+
+        //then
+        assertThat(result.isExactTotal()).isTrue(); // 기본 exact-threshold 보다 적음
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent())
+            .extracting("username")
+            .containsExactly("member2", "member3");
+    }
+
+    @Test
+    void searchSlice() {
+        //given
+        MemberSearchCondition memberSearchCondition = MemberSearchCondition.builder()
+            .build();
+
+        //when
+        Slice<MemberTeamDTO> first = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(0, 3));
+        Slice<MemberTeamDTO> last = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(1, 3));
+
+        //then
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent())
+            .extracting("username")
+            .containsExactly("member1", "member2", "member3");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getContent())
+            .extracting("username")
+            .containsExactly("member4");
+    }
+
     @Test
     void querydslPredicateExecutorTest() {
         Iterable<Member> result = memberRepository.findAll(
@@ -164,6 +233,23 @@ class MemberRepositoryTest {
             .containsExactly("member1", "member2", "member3", "member4");
     }
 
+    @Test
+    void querydslRepositorySupportSortTest() {
+        //given
+        MemberSearchCondition memberSearchCondition = MemberSearchCondition.builder()
+            .build();
+
+        //when
+        Page<MemberTeamDTO> result = memberRepository.searchPageSimpleV2(memberSearchCondition,
+            PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")));
+
+        //then
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent())
+            .extracting("username")
+            .containsExactly("member4", "member3", "member2");
+    }
+
     @Test
     void teest() {
         //given
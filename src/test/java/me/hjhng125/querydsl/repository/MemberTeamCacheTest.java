@@ -0,0 +1,82 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.List;
+import me.hjhng125.querydsl.event.ChangeType;
+import me.hjhng125.querydsl.event.EntityChangeEvent;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemberTeamCacheTest {
+
+    MemberJpaRepository memberJpaRepository;
+    MemberTeamCache memberTeamCache;
+
+    @BeforeEach
+    void beforeEach() {
+        memberJpaRepository = mock(MemberJpaRepository.class);
+        memberTeamCache = new MemberTeamCache(memberJpaRepository, new SimpleMeterRegistry(), 2);
+
+        given(memberJpaRepository.findAllByIds(anyList())).willAnswer(invocation -> {
+            Long id = invocation.<List<Long>>getArgument(0).get(0);
+            return Collections.singletonList(new MemberTeamDTO(id, "member" + id, 10, 1L, "teamA"));
+        });
+    }
+
+    @Test
+    void loadOnce() {
+        //when
+        memberTeamCache.get(1L);
+        memberTeamCache.get(1L);
+
+        //then
+        assertThat(memberTeamCache.get(1L).map(MemberTeamDTO::getUsername)).contains("member1");
+        verify(memberJpaRepository, times(1)).findAllByIds(Collections.singletonList(1L));
+    }
+
+    @Test
+    void invalidateOnChange() {
+        //given
+        memberTeamCache.get(1L);
+        memberTeamCache.get(2L);
+
+        //when
+        memberTeamCache.onChanges(Collections.singletonList(new EntityChangeEvent(Member.class, 1L, ChangeType.UPDATED)));
+        memberTeamCache.get(1L);
+        memberTeamCache.onChanges(Collections.singletonList(new EntityChangeEvent(Team.class, 1L, ChangeType.UPDATED)));
+        memberTeamCache.get(1L);
+        memberTeamCache.get(2L);
+
+        //then
+        verify(memberJpaRepository, times(3)).findAllByIds(Collections.singletonList(1L));
+        verify(memberJpaRepository, times(2)).findAllByIds(Collections.singletonList(2L));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        //given
+        memberTeamCache.get(1L);
+        memberTeamCache.get(2L);
+        memberTeamCache.get(1L);
+
+        //when
+        memberTeamCache.get(3L);
+        memberTeamCache.get(1L);
+        memberTeamCache.get(2L);
+
+        //then
+        verify(memberJpaRepository, times(1)).findAllByIds(Collections.singletonList(1L));
+        verify(memberJpaRepository, times(2)).findAllByIds(Collections.singletonList(2L));
+    }
+}
@@ -0,0 +1,165 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({QuerydslConfig.class, MemberTestRepository.class})
+class MemberTestRepositoryTest {
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        for (int i = 0; i < 5; ++i) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + (i * 2), i * 2, team));
+            em.persist(new Member("member" + (i * 2 + 1), i * 2 + 1, team));
+        }
+
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void defaultBatchFetchSizeTeamMembers() {
+        //given
+        List<Team> teams = em.createQuery("select t from Team t", Team.class)
+            .getResultList();
+        statistics.clear();
+
+        //when
+        teams.forEach(team -> assertThat(team.getMembers()).hasSize(2));
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void defaultBatchFetchSizeMemberTeam() {
+        //given
+        List<Member> members = em.createQuery("select m from Member m", Member.class)
+            .getResultList();
+        statistics.clear();
+
+        //when
+        members.forEach(member -> assertThat(member.getTeam().getName()).startsWith("team"));
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void initializeMembersInBatches() {
+        //given
+        List<Team> teams = em.createQuery("select t from Team t", Team.class)
+            .getResultList();
+        statistics.clear();
+
+        //when
+        memberTestRepository.initializeMembers(teams, 2);
+        teams.forEach(team -> assertThat(team.getMembers()).hasSize(2));
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3); // ceil(5 / 2)
+    }
+
+    @Test
+    void initializeTeamsInBatches() {
+        //given
+        List<Member> members = em.createQuery("select m from Member m", Member.class)
+            .getResultList();
+        statistics.clear();
+
+        //when
+        memberTestRepository.initializeTeams(members, 2);
+        members.forEach(member -> assertThat(member.getTeam().getName()).startsWith("team"));
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3); // ceil(5 / 2)
+    }
+
+    @Test
+    void customApplySlicing() {
+        //given
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .ageGoe(4)
+            .build();
+        statistics.clear();
+
+        //when
+        Slice<Member> result = memberTestRepository.customApplySlicing(condition,
+            PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")));
+
+        //then
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getContent())
+            .extracting("username")
+            .containsExactly("member9", "member8", "member7");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // 카운트 쿼리 없음
+    }
+
+    @Test
+    void customApplyPaginationOnlyContentQuery() {
+        //given
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .ageGoe(2)
+            .build();
+
+        //when
+        Page<Member> result = memberTestRepository.customApplyPaginationOnlyContentQuery(condition,
+            PageRequest.of(0, 3));
+
+        //then
+        assertThat(result.getContent()).hasSize(3);
+        assertThat(result.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    void customApplyDeferredJoinPagination() {
+        //given
+        MemberSearchCondition condition = MemberSearchCondition.builder()
+            .build();
+
+        //when
+        Page<MemberTeamDTO> result = memberTestRepository.customApplyDeferredJoinPagination(condition,
+            PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "age")));
+
+        //then
+        assertThat(result.getTotalElements()).isEqualTo(10);
+        assertThat(result.getContent())
+            .extracting("username")
+            .containsExactly("member6", "member5", "member4");
+        assertThat(result.getContent())
+            .extracting("teamName")
+            .containsExactly("team3", "team2", "team2");
+    }
+}
@@ -0,0 +1,177 @@
+package me.hjhng125.querydsl.repository;
+
+import static me.hjhng125.querydsl.model.entity.QMember.member;
+import static me.hjhng125.querydsl.model.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.dto.QMemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 구간마다 별도의 EntityManager(커넥션)로 조회하므로 테스트 트랜잭션을 사용하지 않고 데이터를 커밋한다.
+ */
+@DataJpaTest
+@Import(QuerydslConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParallelIdRangeExecutorSearchTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+    ParallelIdRangeExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = new ParallelIdRangeExecutor(entityManagerFactory, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+
+    @Test
+    void sameResultAsSingleQuery() {
+        //given
+        saveMembers();
+
+        MemberJpaRepository singleJpaRepository = new MemberJpaRepository(em, queryFactory);
+        MemberJpaRepository parallelJpaRepository = new MemberJpaRepository(em, queryFactory);
+        parallelJpaRepository.setParallelIdRangeExecutor(executor);
+
+        MemberRepositoryCustomImpl singleRepository = new MemberRepositoryCustomImpl(queryFactory, 10000, 60000);
+        MemberRepositoryCustomImpl parallelRepository = new MemberRepositoryCustomImpl(queryFactory, 10000, 60000);
+        parallelRepository.setParallelIdRangeExecutor(executor);
+
+        // searchByWhereParam()의 betweenAge()는 ageGoe 가 있어야 하므로 ageGoe(0)을 조건 없는 검색으로 사용한다.
+        List<MemberSearchCondition> conditions = List.of(
+            MemberSearchCondition.builder().ageGoe(0).build(),
+            MemberSearchCondition.builder().teamName("teamA").ageGoe(0).build(),
+            MemberSearchCondition.builder().ageGoe(15).ageLoe(35).build());
+
+        for (MemberSearchCondition condition : conditions) {
+            //when
+            List<MemberTeamDTO> single = singleJpaRepository.searchByWhereParam(condition);
+            List<MemberTeamDTO> parallel = parallelJpaRepository.searchByWhereParam(condition);
+
+            //then
+            assertThat(single).isNotEmpty();
+            assertThat(parallel).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(single);
+        }
+
+        List<MemberSearchCondition> searchConditions = List.of(
+            new MemberSearchCondition(),
+            MemberSearchCondition.builder().teamName("teamA").build(),
+            MemberSearchCondition.builder().ageGoe(15).ageLoe(35).build());
+
+        for (MemberSearchCondition condition : searchConditions) {
+            //when
+            List<MemberTeamDTO> single = singleRepository.search(condition);
+            List<MemberTeamDTO> parallel = parallelRepository.search(condition);
+
+            //then
+            assertThat(single).isNotEmpty();
+            assertThat(parallel).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(single);
+        }
+    }
+
+    /**
+     * 각 구간의 쿼리에 where 가 있어도 between 조건이 더해지고, 결과는 구간 순서대로 이어 붙는다.
+     */
+    @Test
+    void concatRangesInOrder() {
+        //given
+        saveMembers();
+
+        //when
+        List<MemberTeamDTO> result = executor.fetch(member.id, factory -> factory
+            .select(new QMemberTeamDTO(member.id, member.username, member.age, team.id, team.name))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(member.age.goe(10))
+            .orderBy(member.id.asc()));
+
+        //then
+        assertThat(result).hasSize(16);
+        assertThat(result).isSortedAccordingTo(Comparator.comparing(MemberTeamDTO::getMemberId));
+    }
+
+    @Test
+    void emptyTable() {
+        //when
+        List<MemberTeamDTO> result = executor.fetch(member.id, factory -> factory
+            .select(new QMemberTeamDTO(member.id, member.username, member.age, team.id, team.name))
+            .from(member)
+            .leftJoin(member.team, team));
+
+        //then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void propagateRangeFailure() {
+        //given
+        saveMembers();
+        AtomicInteger queries = new AtomicInteger();
+
+        //when, then
+        assertThatThrownBy(() -> executor.fetch(member.id, factory -> {
+            if (queries.incrementAndGet() == 2) {
+                throw new IllegalStateException("range failed");
+            }
+            return factory.select(member.id).from(member);
+        }))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("range failed");
+    }
+
+    private void saveMembers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+
+            for (int i = 1; i <= 20; ++i) {
+                em.persist(new Member("member" + i, i * 2, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+    }
+}
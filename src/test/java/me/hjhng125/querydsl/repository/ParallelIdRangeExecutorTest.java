@@ -0,0 +1,54 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelIdRangeExecutorTest {
+
+    ParallelIdRangeExecutor executor = new ParallelIdRangeExecutor(mock(EntityManagerFactory.class), 4, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void split() {
+        //when
+        List<long[]> ranges = executor.split(1, 1000);
+
+        //then
+        assertThat(ranges).containsExactly(
+            new long[]{1, 250},
+            new long[]{251, 500},
+            new long[]{501, 750},
+            new long[]{751, 1000}
+        );
+    }
+
+    @Test
+    void splitSmallRange() {
+        //when
+        List<long[]> ranges = executor.split(1, 250);
+
+        //then
+        assertThat(ranges).containsExactly(
+            new long[]{1, 125},
+            new long[]{126, 250}
+        );
+    }
+
+    @Test
+    void notSplitBelowMinRangeSize() {
+        //when
+        List<long[]> ranges = executor.split(10, 50);
+
+        //then
+        assertThat(ranges).containsExactly(new long[]{10, 50});
+    }
+}
@@ -0,0 +1,89 @@
+package me.hjhng125.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.dto.TeamMembersDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+@DataJpaTest
+@Import(QuerydslConfig.class)
+class TeamRepositoryTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    public void beforeEach() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void searchTeamMembers() {
+        //given
+        PageRequest pageRequest = PageRequest.of(0, 2);
+
+        //when
+        Page<TeamMembersDTO> result = teamRepository.searchTeamMembers(pageRequest);
+
+        //then
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent())
+            .extracting("teamName")
+            .containsExactly("teamA", "teamB");
+        assertThat(result.getContent().get(0).getMembers())
+            .extracting("username")
+            .containsExactly("member1", "member2");
+        assertThat(result.getContent().get(1).getMembers())
+            .extracting("username")
+            .containsExactly("member3", "member4");
+    }
+
+    @Test
+    void searchTeamMembersWithoutMembers() {
+        //given
+        PageRequest pageRequest = PageRequest.of(1, 2);
+
+        //when
+        Page<TeamMembersDTO> result = teamRepository.searchTeamMembers(pageRequest);
+
+        //then
+        assertThat(result.getContent())
+            .extracting("teamName")
+            .containsExactly("teamC");
+        assertThat(result.getContent().get(0).getMembers()).isEmpty();
+    }
+}
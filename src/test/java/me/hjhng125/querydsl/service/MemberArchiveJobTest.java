@@ -0,0 +1,72 @@
+package me.hjhng125.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.event.EntityChangeCollector;
+import me.hjhng125.querydsl.event.EntityChangePublisher;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.ArchivedMember;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import me.hjhng125.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = {"member.archive.without-team=true", "member.archive.batch-size=2"})
+@Import({QuerydslConfig.class, MemberArchiveJob.class, EntityChangeCollector.class, EntityChangePublisher.class,
+    SimpleMeterRegistry.class})
+class MemberArchiveJobTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberArchiveJob memberArchiveJob;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void archiveAndUnionRead() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20));
+        em.persist(new Member("member3", 30));
+        em.persist(new Member("member4", 40));
+        em.flush();
+        em.clear();
+
+        //when
+        int archived = memberArchiveJob.archive();
+        em.clear();
+
+        //then
+        assertThat(archived).isEqualTo(3);
+        assertThat(em.find(ArchivedMember.class, findArchivedId("member2")).getArchivedAt()).isNotNull();
+
+        List<MemberTeamDTO> hot = memberRepository.search(new MemberSearchCondition());
+        assertThat(hot).extracting("username").containsExactly("member1");
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setIncludeArchived(true);
+        condition.setAgeGoe(20);
+        List<MemberTeamDTO> all = memberRepository.search(condition);
+        assertThat(all).extracting("username").containsExactlyInAnyOrder("member2", "member3", "member4");
+    }
+
+    private Long findArchivedId(String username) {
+        return em.createQuery("select a.id from ArchivedMember a where a.username = :username", Long.class)
+            .setParameter("username", username)
+            .getSingleResult();
+    }
+}
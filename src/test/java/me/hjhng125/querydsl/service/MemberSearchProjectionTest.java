@@ -0,0 +1,134 @@
+package me.hjhng125.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.event.EntityChangeCollector;
+import me.hjhng125.querydsl.event.EntityChangePublisher;
+import me.hjhng125.querydsl.event.HibernateEntityChangeListener;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import me.hjhng125.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = "member.read-model.enabled=true")
+@Import({QuerydslConfig.class, MemberSearchProjection.class, EntityChangeCollector.class, EntityChangePublisher.class,
+    HibernateEntityChangeListener.class, SimpleMeterRegistry.class})
+class MemberSearchProjectionTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchReadModel() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        //when
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        List<MemberTeamDTO> result = memberRepository.search(condition);
+
+        //then
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    @Test
+    void reflectChanges() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        memberRepository.search(new MemberSearchCondition());
+
+        //when
+        member2.setTeam(teamB);
+        em.remove(member1);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        Page<MemberTeamDTO> result = memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+
+        //then
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent()).extracting("username").containsExactly("member2");
+        assertThat(memberRepository.search(new MemberSearchCondition())).extracting("username").containsExactly("member2");
+    }
+
+    /**
+     * 검색 없이 커밋하면 insert, update 는 커밋 시점의 flush 에서 실행된다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void reflectChangesFlushedAtCommit() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            //given
+            Long memberId = transactionTemplate.execute(status -> {
+                Team teamA = new Team("teamA");
+                em.persist(teamA);
+                Member member = new Member("member1", 10, teamA);
+                em.persist(member);
+                return member.getId();
+            });
+
+            //when
+            transactionTemplate.executeWithoutResult(status -> em.find(Member.class, memberId).setAge(20));
+
+            //then
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select username, age, team_name from member_search where member_id = ?", memberId);
+            assertThat(row).containsEntry("USERNAME", "member1")
+                .containsEntry("AGE", 20)
+                .containsEntry("TEAM_NAME", "teamA");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("delete from member_search");
+                jdbcTemplate.update("delete from member");
+                jdbcTemplate.update("delete from team");
+            });
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package me.hjhng125.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import me.hjhng125.querydsl.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 충돌은 커밋 시점에 발생하고 OptimisticRetryExecutor 가 시도마다 트랜잭션을 열기 때문에 테스트 트랜잭션에 참여하지 않고 커밋한다.
+ */
+@DataJpaTest(properties = "optimistic-lock.retry.backoff-millis=0")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({QuerydslConfig.class, MemberUpdateService.class, OptimisticRetryExecutor.class, SimpleMeterRegistry.class,
+    MemberUpdateServiceTest.AfterFindMemberConfig.class})
+class MemberUpdateServiceTest {
+
+    /**
+     * MemberRepository.findById() 직후 한 번 실행된다.
+     */
+    static final AtomicReference<Runnable> AFTER_FIND_MEMBER = new AtomicReference<>();
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberUpdateService memberUpdateService;
+
+    @Autowired
+    SimpleMeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        AFTER_FIND_MEMBER.set(null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from member");
+            jdbcTemplate.update("delete from team");
+        });
+    }
+
+    /**
+     * 첫 번째 시도에서 멤버를 조회한 직후 다른 트랜잭션이 같은 멤버를 수정하여 version 을 올린다.
+     */
+    @Test
+    void retryOnVersionConflict() {
+        //given
+        Long memberId = saveMember();
+
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AFTER_FIND_MEMBER.set(() -> requiresNew.executeWithoutResult(status ->
+            jdbcTemplate.update("update member set username = 'concurrent', version = version + 1 where member_id = ?", memberId)));
+
+        //when
+        memberUpdateService.changeAge(memberId, 30);
+
+        //then
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").tag("outcome", "retried").counter().count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap("select username, age, version from member where member_id = ?", memberId))
+            .containsEntry("USERNAME", "concurrent")
+            .containsEntry("AGE", 30)
+            .containsEntry("VERSION", 2L);
+    }
+
+    @Test
+    void rejectUnknownTeam() {
+        //given
+        Long memberId = saveMember();
+
+        //then
+        assertThatThrownBy(() -> memberUpdateService.changeTeam(memberId, -1L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Team not found: -1");
+    }
+
+    private Long saveMember() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            Member member = new Member("member1", 10, team);
+            em.persist(member);
+            return member.getId();
+        });
+    }
+
+    @TestConfiguration
+    static class AfterFindMemberConfig {
+
+        @Bean
+        static BeanPostProcessor afterFindMember() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof MemberRepository)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(MemberRepository.class.getClassLoader(), new Class<?>[]{MemberRepository.class},
+                        (proxy, method, args) -> {
+                            Object result;
+                            try {
+                                result = method.invoke(bean, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                            Runnable afterFind = "findById".equals(method.getName()) ? AFTER_FIND_MEMBER.getAndSet(null) : null;
+                            if (afterFind != null) {
+                                afterFind.run();
+                            }
+                            return result;
+                        });
+                }
+            };
+        }
+    }
+}
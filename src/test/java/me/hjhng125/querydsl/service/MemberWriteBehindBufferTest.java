@@ -0,0 +1,112 @@
+package me.hjhng125.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.event.EntityChangeCollector;
+import me.hjhng125.querydsl.event.EntityChangePublisher;
+import me.hjhng125.querydsl.model.entity.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 백그라운드 flush 가 테스트 트랜잭션 밖에서 실행되지 않도록 flush 주기를 길게 잡는다.
+ */
+@DataJpaTest(properties = "member.write-behind.flush-interval-millis=600000")
+@Import({QuerydslConfig.class, MemberWriteBehindBuffer.class, EntityChangeCollector.class, EntityChangePublisher.class, SimpleMeterRegistry.class})
+class MemberWriteBehindBufferTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberWriteBehindBuffer memberWriteBehindBuffer;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void coalesceAndFlush() {
+        //given
+        Member member1 = new Member("member1", 10);
+        Member member2 = new Member("member2", 20);
+        em.persist(member1);
+        em.persist(member2);
+        em.flush();
+
+        memberWriteBehindBuffer.updateAge(member1.getId(), 11);
+        memberWriteBehindBuffer.updateUsername(member1.getId(), "renamed");
+        memberWriteBehindBuffer.updateAge(member1.getId(), 12);
+        memberWriteBehindBuffer.updateAge(member2.getId(), 21);
+
+        //when
+        int flushed = memberWriteBehindBuffer.flush();
+        em.clear();
+
+        //then
+        assertThat(flushed).isEqualTo(2);
+        assertThat(memberWriteBehindBuffer.pendingCount()).isZero();
+
+        Member found1 = em.find(Member.class, member1.getId());
+        assertThat(found1.getUsername()).isEqualTo("renamed");
+        assertThat(found1.getAge()).isEqualTo(12);
+
+        Member found2 = em.find(Member.class, member2.getId());
+        assertThat(found2.getUsername()).isEqualTo("member2");
+        assertThat(found2.getAge()).isEqualTo(21);
+    }
+
+    /**
+     * 실패한 batch 를 나누어 다시 반영하므로 테스트 트랜잭션에 참여하지 않고 커밋한다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void dropOnlyUpdatesThatCannotBeWritten() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            //given
+            List<Long> memberIds = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 1; i <= 4; ++i) {
+                    Member member = new Member("member" + i, i * 10);
+                    em.persist(member);
+                    ids.add(member.getId());
+                }
+                return ids;
+            });
+
+            memberWriteBehindBuffer.updateAge(memberIds.get(0), 11);
+            memberWriteBehindBuffer.updateUsername(memberIds.get(1), "x".repeat(300)); // varchar(255) 초과
+            memberWriteBehindBuffer.updateAge(memberIds.get(2), 31);
+            memberWriteBehindBuffer.updateAge(memberIds.get(3), 41);
+
+            //when
+            int flushed = memberWriteBehindBuffer.flush();
+
+            //then
+            assertThat(flushed).isEqualTo(4);
+            assertThat(memberWriteBehindBuffer.pendingCount()).isZero();
+            assertThat(jdbcTemplate.queryForList("select age from member order by member_id", Integer.class))
+                .containsExactly(11, 20, 31, 41);
+            assertThat(jdbcTemplate.queryForObject("select username from member where member_id = ?", String.class, memberIds.get(1)))
+                .isEqualTo("member2");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from member"));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package me.hjhng125.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OptimisticRetryExecutorTest {
+
+    SimpleMeterRegistry meterRegistry;
+    OptimisticRetryExecutor retryExecutor;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryExecutor = new OptimisticRetryExecutor(mock(PlatformTransactionManager.class), meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void retryUntilSuccess() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        String result = retryExecutor.execute("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Member", 1L);
+            }
+            return "updated";
+        });
+
+        //then
+        assertThat(result).isEqualTo("updated");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").tag("outcome", "retried").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void exhausted() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //then
+        assertThatThrownBy(() -> retryExecutor.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Member", 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").tag("outcome", "exhausted").counter().count()).isEqualTo(1);
+    }
+}
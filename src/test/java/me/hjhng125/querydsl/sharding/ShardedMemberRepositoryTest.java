@@ -0,0 +1,126 @@
+package me.hjhng125.querydsl.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import me.hjhng125.querydsl.config.QuerydslConfig;
+import me.hjhng125.querydsl.model.MemberSearchCondition;
+import me.hjhng125.querydsl.model.dto.MemberTeamDTO;
+import me.hjhng125.querydsl.model.entity.Member;
+import me.hjhng125.querydsl.model.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 두 개의 in-memory H2 데이터베이스를 샤드로 사용한다.<br/>
+ * 샤드의 트랜잭션은 기본 트랜잭션 매니저와 별개이므로 테스트 트랜잭션을 사용하지 않고 직접 데이터를 지운다.
+ */
+@DataJpaTest(properties = {
+    "sharding.enabled=true",
+    "sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+    "sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1"
+})
+@Import({QuerydslConfig.class, ShardingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    Shards shards;
+
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+
+    Team teamA;
+    Team teamB;
+
+    @BeforeEach
+    void beforeEach() {
+        teamA = shards.get(0).inTransaction(() -> {
+            EntityManager em = shards.get(0).getEntityManager();
+            Team team = new Team("teamA");
+            em.persist(team);
+            em.persist(new Member("member1", 10, team));
+            em.persist(new Member("member2", 20, team));
+            return team;
+        });
+
+        teamB = shards.get(1).inTransaction(() -> {
+            EntityManager em = shards.get(1).getEntityManager();
+            Team team = new Team("teamB");
+            em.persist(team);
+            em.persist(new Member("member3", 30, team));
+            em.persist(new Member("member4", 40, team));
+            return team;
+        });
+    }
+
+    @AfterEach
+    void afterEach() {
+        for (Shard shard : shards.all()) {
+            shard.inTransaction(() -> {
+                shard.getEntityManager().createQuery("delete from Member").executeUpdate();
+                return shard.getEntityManager().createQuery("delete from Team").executeUpdate();
+            });
+        }
+    }
+
+    @Test
+    void shardOfTeamId() {
+        //then
+        assertThat(shards.shardOf(teamA.getId()).getIndex()).isEqualTo(0);
+        assertThat(shards.shardOf(teamB.getId()).getIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void search() {
+        //when
+        List<MemberTeamDTO> all = shardedMemberRepository.search(new MemberSearchCondition());
+        List<MemberTeamDTO> teamScoped = shardedMemberRepository.search(MemberSearchCondition.builder()
+            .teamName("teamB")
+            .build());
+
+        //then
+        assertThat(all).extracting("username").containsExactlyInAnyOrder("member1", "member2", "member3", "member4");
+        assertThat(teamScoped).extracting("username", "teamId").containsExactlyInAnyOrder(
+            tuple("member3", teamB.getId()),
+            tuple("member4", teamB.getId()));
+    }
+
+    @Test
+    void searchPageSorted() {
+        //given
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age"));
+
+        //when
+        Page<MemberTeamDTO> result = shardedMemberRepository.searchPageSimpleV2(new MemberSearchCondition(), pageRequest);
+
+        //then
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent()).extracting("username").containsExactly("member4", "member3", "member2");
+    }
+
+    @Test
+    void searchSlice() {
+        //given
+        PageRequest pageRequest = PageRequest.of(1, 3);
+
+        //when
+        Slice<MemberTeamDTO> result = shardedMemberRepository.searchSlice(new MemberSearchCondition(), pageRequest);
+
+        //then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+    }
+}